@@ -0,0 +1,100 @@
+package com.example.wallet.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Приложение, запущенное нагрузочным тестом в отдельном процессе.
+ * <p>
+ * Kafka не нужна: листенеры не стартуют, а outbox relay выключен, события просто копятся в таблице.
+ */
+final class AppProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Process process;
+
+    private final URI baseUrl;
+
+    private AppProcess(Process process, URI baseUrl) {
+        this.process = process;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Запускает jar и ждёт, пока {@code /actuator/health} ответит 200.
+     *
+     * @param database {@code h2} — новая файловая БД в {@code build/load-test}; {@code postgres} — профиль docker
+     */
+    static AppProcess start(Path jar, String database, List<String> appArgs) throws IOException, InterruptedException {
+        if (!Files.exists(jar)) {
+            throw new IOException("Application jar " + jar + " not found, run gradle bootJar first");
+        }
+        int port = freePort();
+        Path workDir = Path.of("build", "load-test");
+        Files.createDirectories(workDir);
+
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-jar", jar.toAbsolutePath().toString(),
+                "--server.port=" + port,
+                "--spring.kafka.listener.auto-startup=false",
+                "--spring.kafka.admin.auto-create=false",
+                "--wallet.outbox.relay-enabled=false",
+                "--wallet.call-center.operators-enabled=false"
+        ));
+        if (database.equals("h2")) {
+            Path db = workDir.resolve("walletdb-" + System.currentTimeMillis()).toAbsolutePath();
+            command.add("--spring.profiles.active=dev");
+            command.add("--spring.datasource.url=jdbc:h2:file:" + db);
+            command.add("--wallet.fraud.velocity-snapshot-path=");
+        } else {
+            command.add("--spring.profiles.active=docker");
+        }
+        command.addAll(appArgs);
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve("app.log").toFile())
+                .start();
+        AppProcess app = new AppProcess(process, URI.create("http://localhost:" + port));
+
+        WalletClient client = new WalletClient(app.baseUrl, Duration.ofSeconds(5));
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (!client.isUp()) {
+            if (!process.isAlive() || System.nanoTime() > deadline) {
+                app.close();
+                throw new IOException("Application did not start, see " + workDir.resolve("app.log"));
+            }
+            Thread.sleep(500);
+        }
+        return app;
+    }
+
+    URI baseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public void close() {
+        process.destroy();
+        try {
+            process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.wallet.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Выбор пары счетов для перевода.
+ */
+final class KeyDistribution {
+
+    enum Kind {
+        /**
+         * Все счета равновероятны.
+         */
+        UNIFORM,
+        /**
+         * Счёт с номером {@code k} выбирается с вероятностью, пропорциональной {@code 1 / (k + 1)^s}.
+         */
+        ZIPF,
+        /**
+         * Один из счетов перевода всегда нулевой, направление случайное.
+         */
+        HOT
+    }
+
+    private final Kind kind;
+
+    private final int accounts;
+
+    /**
+     * Накопленные вероятности для ZIPF.
+     */
+    private final double[] cdf;
+
+    KeyDistribution(Kind kind, int accounts, double zipfExponent) {
+        this.kind = kind;
+        this.accounts = accounts;
+        this.cdf = kind == Kind.ZIPF ? zipfCdf(accounts, zipfExponent) : null;
+    }
+
+    /**
+     * @return номера счетов отправителя и получателя, всегда разные
+     */
+    int[] nextPair() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (kind == Kind.HOT) {
+            int other = 1 + random.nextInt(accounts - 1);
+            return random.nextBoolean() ? new int[]{0, other} : new int[]{other, 0};
+        }
+        int from = next(random);
+        int to;
+        do {
+            to = next(random);
+        } while (to == from);
+        return new int[]{from, to};
+    }
+
+    private int next(ThreadLocalRandom random) {
+        if (kind == Kind.UNIFORM) {
+            return random.nextInt(accounts);
+        }
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, accounts - 1);
+    }
+
+    private static double[] zipfCdf(int accounts, double exponent) {
+        double[] cdf = new double[accounts];
+        double sum = 0;
+        for (int k = 0; k < accounts; k++) {
+            sum += 1 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < accounts; k++) {
+            cdf[k] /= sum;
+        }
+        return cdf;
+    }
+}
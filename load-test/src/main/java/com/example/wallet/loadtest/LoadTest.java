@@ -0,0 +1,289 @@
+package com.example.wallet.loadtest;
+
+import com.example.wallet.loadtest.WalletClient.TransferResult;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный тест переводов с конкуренцией за счета.
+ * <p>
+ * Создаёт счета, затем {@code concurrency} потоков без пауз шлют переводы между ними; счета выбираются
+ * по заданному распределению. После прогона печатает пропускную способность, перцентили задержки,
+ * коды ответов, прирост метрик блокировок приложения и проверяет, что деньги не появились и не пропали:
+ * сумма балансов должна уменьшиться ровно на сумму комиссий выполненных переводов.
+ * <p>
+ * Переводы, на которые не пришёл ответ, в конце повторяются с тем же ключом идемпотентности,
+ * чтобы узнать, были ли они выполнены.
+ */
+public final class LoadTest {
+
+    private static final String CURRENCY = "USD";
+
+    private static final List<String> APP_METRICS = List.of(
+            "wallet.transfer.lock.failures",
+            "wallet.transfer.lock.retries.exhausted",
+            "wallet.transfer.optimistic.conflicts"
+    );
+
+    private static final int REPLAY_ATTEMPTS = 3;
+
+    private final LoadTestOptions options;
+
+    private final WalletClient client;
+
+    private final KeyDistribution distribution;
+
+    private final List<UUID> accountIds = new ArrayList<>();
+
+    private final List<String> accountNames = new ArrayList<>();
+
+    private LoadTest(LoadTestOptions options, URI baseUrl) {
+        this.options = options;
+        this.client = new WalletClient(baseUrl, options.requestTimeout());
+        this.distribution = new KeyDistribution(options.distribution(), options.accounts(), options.zipfExponent());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        boolean conserved;
+        if (options.boot() != null) {
+            System.out.printf("Starting application (%s)...%n", options.boot());
+            try (AppProcess app = AppProcess.start(options.appJar(), options.boot(), options.appArgs())) {
+                conserved = new LoadTest(options, app.baseUrl()).run();
+            }
+        } else {
+            conserved = new LoadTest(options, options.baseUrl()).run();
+        }
+        System.exit(conserved ? 0 : 1);
+    }
+
+    /**
+     * @return {@code true}, если сумма балансов сошлась
+     */
+    private boolean run() throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency());
+        try {
+            createAccounts(workers);
+            Map<String, Double> metricsBefore = readMetrics();
+
+            System.out.printf("Running %d workers, %s distribution, warmup %ss, measurement %ss...%n",
+                    options.concurrency(), options.distribution().name().toLowerCase(),
+                    options.warmup().toSeconds(), options.duration().toSeconds());
+            long measureFrom = System.nanoTime() + options.warmup().toNanos();
+            long measureTo = measureFrom + options.duration().toNanos();
+            List<Future<WorkerStats>> futures = new ArrayList<>();
+            for (int i = 0; i < options.concurrency(); i++) {
+                futures.add(workers.submit(() -> work(measureFrom, measureTo)));
+            }
+            WorkerStats total = new WorkerStats();
+            for (Future<WorkerStats> future : futures) {
+                total.add(future.get());
+            }
+
+            int replayed = replayUnanswered(total);
+            Map<String, Double> metricsAfter = readMetrics();
+            BigDecimal finalTotal = sumBalances(workers);
+
+            return report(total, replayed, metricsBefore, metricsAfter, finalTotal);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void createAccounts(ExecutorService workers) throws Exception {
+        System.out.printf("Creating %d accounts with %s %s each...%n",
+                options.accounts(), options.initialBalance(), CURRENCY);
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        BigDecimal initialBalance = new BigDecimal(options.initialBalance());
+        List<Callable<UUID>> tasks = new ArrayList<>();
+        for (int i = 0; i < options.accounts(); i++) {
+            String name = "load-" + runId + "-" + i;
+            accountNames.add(name);
+            tasks.add(() -> {
+                UUID id = client.createAccount(name, CURRENCY);
+                client.deposit(id, initialBalance);
+                return id;
+            });
+        }
+        for (Future<UUID> id : workers.invokeAll(tasks)) {
+            accountIds.add(id.get());
+        }
+    }
+
+    private WorkerStats work(long measureFrom, long measureTo) throws InterruptedException {
+        WorkerStats stats = new WorkerStats();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < measureTo && !Thread.currentThread().isInterrupted()) {
+            int[] pair = distribution.nextPair();
+            PendingTransfer transfer = new PendingTransfer(
+                    UUID.randomUUID(),
+                    pair[0],
+                    pair[1],
+                    BigDecimal.valueOf(100 + random.nextInt(900), 2),
+                    random.nextDouble() < options.byNamesRatio()
+            );
+
+            long start = System.nanoTime();
+            TransferResult result;
+            try {
+                result = send(transfer);
+            } catch (IOException e) {
+                stats.unanswered.add(transfer);
+                continue;
+            }
+            long latencyMicros = (System.nanoTime() - start) / 1000;
+
+            if (result.succeeded()) {
+                stats.fees = stats.fees.add(result.fee());
+            }
+            if (start >= measureFrom) {
+                (transfer.byNames() ? stats.byNames : stats.byId).recordValue(latencyMicros);
+                stats.statuses.merge(result.status(), 1L, Long::sum);
+            }
+        }
+        return stats;
+    }
+
+    private TransferResult send(PendingTransfer transfer) throws IOException, InterruptedException {
+        if (transfer.byNames()) {
+            return client.transferByNames(transfer.idempotencyKey(), accountNames.get(transfer.from()),
+                    accountNames.get(transfer.to()), CURRENCY, transfer.amount());
+        }
+        return client.transfer(transfer.idempotencyKey(), accountIds.get(transfer.from()),
+                accountIds.get(transfer.to()), transfer.amount());
+    }
+
+    /**
+     * Повторяет переводы без ответа с тем же ключом идемпотентности и учитывает комиссию выполненных.
+     *
+     * @return сколько переводов повторено
+     */
+    private int replayUnanswered(WorkerStats total) throws InterruptedException, IOException {
+        for (PendingTransfer transfer : total.unanswered) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    TransferResult result = send(transfer);
+                    if (result.succeeded()) {
+                        total.fees = total.fees.add(result.fee());
+                    }
+                    break;
+                } catch (IOException e) {
+                    if (attempt == REPLAY_ATTEMPTS) {
+                        throw new IOException("Transfer " + transfer.idempotencyKey() + " outcome is unknown", e);
+                    }
+                }
+            }
+        }
+        return total.unanswered.size();
+    }
+
+    private BigDecimal sumBalances(ExecutorService workers) throws Exception {
+        List<Callable<BigDecimal>> tasks = new ArrayList<>();
+        for (UUID id : accountIds) {
+            tasks.add(() -> client.balance(id));
+        }
+        BigDecimal sum = BigDecimal.ZERO;
+        for (Future<BigDecimal> balance : workers.invokeAll(tasks)) {
+            sum = sum.add(balance.get());
+        }
+        return sum;
+    }
+
+    private Map<String, Double> readMetrics() throws IOException, InterruptedException {
+        Map<String, Double> values = new TreeMap<>();
+        for (String metric : APP_METRICS) {
+            values.put(metric, client.metric(metric));
+        }
+        return values;
+    }
+
+    private boolean report(WorkerStats total, int replayed, Map<String, Double> metricsBefore,
+                           Map<String, Double> metricsAfter, BigDecimal finalTotal) {
+        double seconds = options.duration().toNanos() / 1e9;
+        long requests = total.statuses.values().stream().mapToLong(Long::longValue).sum();
+        long succeeded = total.statuses.entrySet().stream()
+                .filter(e -> e.getKey() / 100 == 2)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+
+        System.out.println();
+        System.out.printf("Requests: %d in %.1fs, %.1f req/s, %.1f successful transfers/s%n",
+                requests, seconds, requests / seconds, succeeded / seconds);
+        System.out.println("Status codes: " + new TreeMap<>(total.statuses));
+        System.out.println("No response (replayed after the run): " + replayed);
+        printLatency("POST /transfers", total.byId);
+        printLatency("POST /transfers/by-names", total.byNames);
+
+        System.out.println("Application counters (increase during the run, warmup included):");
+        metricsAfter.forEach((name, after) ->
+                System.out.printf("  %-42s %.0f%n", name, after - metricsBefore.get(name)));
+
+        BigDecimal expected = new BigDecimal(options.initialBalance())
+                .multiply(BigDecimal.valueOf(options.accounts()))
+                .subtract(total.fees);
+        boolean conserved = expected.compareTo(finalTotal) == 0;
+        System.out.printf("Balance conservation: expected %s, actual %s -> %s%n",
+                expected, finalTotal, conserved ? "OK" : "MISMATCH");
+        return conserved;
+    }
+
+    private static void printLatency(String name, Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return;
+        }
+        System.out.printf("%s latency, ms: p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f  (n=%d)%n",
+                name,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0,
+                histogram.getTotalCount());
+    }
+
+    /**
+     * @param from индекс счёта отправителя
+     * @param to   индекс счёта получателя
+     */
+    private record PendingTransfer(UUID idempotencyKey, int from, int to, BigDecimal amount, boolean byNames) {
+
+    }
+
+    /**
+     * Результаты одного потока; задержки в микросекундах.
+     */
+    private static final class WorkerStats {
+
+        private final Histogram byId = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+
+        private final Histogram byNames = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+
+        private final List<PendingTransfer> unanswered = new ArrayList<>();
+
+        private BigDecimal fees = BigDecimal.ZERO;
+
+        private void add(WorkerStats other) {
+            byId.add(other.byId);
+            byNames.add(other.byNames);
+            other.statuses.forEach((status, count) -> statuses.merge(status, count, Long::sum));
+            unanswered.addAll(other.unanswered);
+            fees = fees.add(other.fees);
+        }
+    }
+}
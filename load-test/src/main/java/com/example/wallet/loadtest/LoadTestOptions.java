@@ -0,0 +1,108 @@
+package com.example.wallet.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Параметры прогона из аргументов вида {@code --name=value}.
+ *
+ * @param boot          {@code h2} или {@code postgres}: запустить приложение самому; {@code null} — взять уже запущенное
+ * @param appJar        jar приложения для {@code boot}
+ * @param appArgs       дополнительные аргументы приложения, например {@code --wallet.transfer.strategy=OPTIMISTIC}
+ * @param byNamesRatio  доля переводов через {@code /transfers/by-names}
+ * @param zipfExponent  показатель распределения Zipf
+ */
+record LoadTestOptions(
+        URI baseUrl,
+        String boot,
+        Path appJar,
+        List<String> appArgs,
+        int accounts,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        KeyDistribution.Kind distribution,
+        double zipfExponent,
+        double byNamesRatio,
+        String initialBalance,
+        Duration requestTimeout
+) {
+
+    static final String USAGE = """
+            Options (all optional):
+              --base-url=http://localhost:8080   application to load; ignored port with --boot
+              --boot=h2|postgres                 start the application jar (H2 file in build/load-test, or docker profile)
+              --app-jar=build/libs/wallet-0.0.1-SNAPSHOT.jar
+              --app-arg=--key=value              extra application argument, repeatable
+              --accounts=100
+              --concurrency=32
+              --warmup=10s
+              --duration=60s
+              --distribution=uniform|zipf|hot    account choice; hot = every transfer touches account 0
+              --zipf-exponent=1.0
+              --by-names-ratio=0.2
+              --initial-balance=1000000.00
+              --request-timeout=30s
+            """;
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unexpected argument " + arg + "\n" + USAGE);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (name.equals("app-arg")) {
+                appArgs.add(value);
+            } else {
+                values.put(name, value);
+            }
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                URI.create(values.getOrDefault("base-url", "http://localhost:8080")),
+                values.get("boot"),
+                Path.of(values.getOrDefault("app-jar", "build/libs/wallet-0.0.1-SNAPSHOT.jar")),
+                List.copyOf(appArgs),
+                Integer.parseInt(values.getOrDefault("accounts", "100")),
+                Integer.parseInt(values.getOrDefault("concurrency", "32")),
+                duration(values.getOrDefault("warmup", "10s")),
+                duration(values.getOrDefault("duration", "60s")),
+                KeyDistribution.Kind.valueOf(values.getOrDefault("distribution", "uniform").toUpperCase()),
+                Double.parseDouble(values.getOrDefault("zipf-exponent", "1.0")),
+                Double.parseDouble(values.getOrDefault("by-names-ratio", "0.2")),
+                values.getOrDefault("initial-balance", "1000000.00"),
+                duration(values.getOrDefault("request-timeout", "30s"))
+        );
+        if (options.boot() != null && !options.boot().equals("h2") && !options.boot().equals("postgres")) {
+            throw new IllegalArgumentException("--boot must be h2 or postgres\n" + USAGE);
+        }
+        if (options.accounts() < 2) {
+            throw new IllegalArgumentException("--accounts must be at least 2");
+        }
+        return options;
+    }
+
+    /**
+     * Длительность вида {@code 500ms}, {@code 30s} или {@code 5m}.
+     */
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+}
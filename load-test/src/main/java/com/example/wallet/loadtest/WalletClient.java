@@ -0,0 +1,139 @@
+package com.example.wallet.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * HTTP-клиент к API кошелька.
+ */
+final class WalletClient {
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    private final URI baseUrl;
+
+    private final Duration requestTimeout;
+
+    WalletClient(URI baseUrl, Duration requestTimeout) {
+        this.baseUrl = baseUrl;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Ответ на перевод.
+     *
+     * @param fee комиссия, если перевод выполнен, иначе {@code null}
+     */
+    record TransferResult(int status, BigDecimal fee) {
+
+        boolean succeeded() {
+            return fee != null;
+        }
+    }
+
+    UUID createAccount(String ownerName, String currency) throws IOException, InterruptedException {
+        ObjectNode body = json.createObjectNode().put("ownerName", ownerName).put("currency", currency);
+        return UUID.fromString(expectOk(post("/accounts", body)).get("id").asText());
+    }
+
+    void deposit(UUID accountId, BigDecimal amount) throws IOException, InterruptedException {
+        expectOk(post("/accounts/" + accountId + "/deposit", json.createObjectNode().put("amount", amount)));
+    }
+
+    BigDecimal balance(UUID accountId) throws IOException, InterruptedException {
+        return expectOk(get("/accounts/" + accountId + "/balance")).get("balance").decimalValue();
+    }
+
+    TransferResult transfer(UUID idempotencyKey, UUID fromId, UUID toId, BigDecimal amount)
+            throws IOException, InterruptedException {
+        ObjectNode body = json.createObjectNode()
+                .put("idempotencyKey", idempotencyKey.toString())
+                .put("fromAccountId", fromId.toString())
+                .put("toAccountId", toId.toString())
+                .put("amount", amount);
+        return toTransferResult(post("/transfers", body));
+    }
+
+    TransferResult transferByNames(UUID idempotencyKey, String fromName, String toName, String currency,
+                                   BigDecimal amount) throws IOException, InterruptedException {
+        ObjectNode body = json.createObjectNode()
+                .put("idempotencyKey", idempotencyKey.toString())
+                .put("fromName", fromName)
+                .put("toName", toName)
+                .put("currency", currency)
+                .put("amount", amount);
+        return toTransferResult(post("/transfers/by-names", body));
+    }
+
+    /**
+     * Сумма всех значений метрики из {@code /actuator/metrics}; 0, если метрики ещё нет.
+     */
+    double metric(String name) throws IOException, InterruptedException {
+        HttpResponse<String> response = get("/actuator/metrics/" + name);
+        if (response.statusCode() == 404) {
+            return 0;
+        }
+        JsonNode measurements = expectOk(response).get("measurements");
+        return measurements.isEmpty() ? 0 : measurements.get(0).get("value").asDouble();
+    }
+
+    boolean isUp() {
+        try {
+            return get("/actuator/health").statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private TransferResult toTransferResult(HttpResponse<String> response) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            return new TransferResult(response.statusCode(), null);
+        }
+        return new TransferResult(response.statusCode(), json.readTree(response.body()).get("fee").decimalValue());
+    }
+
+    private HttpResponse<String> post(String path, JsonNode body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body)))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode expectOk(HttpResponse<String> response) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(response.request().method() + " " + response.request().uri()
+                    + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return json.readTree(response.body());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.wallet.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON события перевода: запись в outbox ({@link TransferProducer}) и чтение в {@link OutboxRelay}.
+ * {@link ObjectMapper} настроен как в Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferCompletedEventJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private TransferCompletedEvent event;
+
+    private String json;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        OffsetDateTime now = OffsetDateTime.parse("2025-01-01T12:00:00Z");
+        event = TransferCompletedEvent.builder()
+                .schemaVersion(TransferCompletedEvent.ENRICHED_SCHEMA_VERSION)
+                .transferId(UUID.randomUUID())
+                .fromAccountId(UUID.randomUUID())
+                .toAccountId(UUID.randomUUID())
+                .amount(new BigDecimal("1250.50"))
+                .currency("RUB")
+                .fee(new BigDecimal("12.51"))
+                .createdAt(now)
+                .senderCreatedAt(now.minusDays(30))
+                .build();
+        json = objectMapper.writeValueAsString(event);
+    }
+
+    @Benchmark
+    public String serialize() throws Exception {
+        return objectMapper.writeValueAsString(event);
+    }
+
+    @Benchmark
+    public TransferCompletedEvent deserialize() throws Exception {
+        return objectMapper.readValue(json, TransferCompletedEvent.class);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.account.AccountMetadataCache;
+import com.example.wallet.account.AccountRepository;
+import com.example.wallet.configuration.AccountCacheProperties;
+import com.example.wallet.configuration.FraudProperties;
+import com.example.wallet.event.TransferCompletedEvent;
+import com.example.wallet.transfer.dto.FraudAnalysisResult;
+import com.example.wallet.transfer.fraud.AccountAgeRule;
+import com.example.wallet.transfer.fraud.AmountRule;
+import com.example.wallet.transfer.fraud.BenchmarkFraudProperties;
+import com.example.wallet.transfer.fraud.FraudRulePipeline;
+import com.example.wallet.transfer.fraud.VelocityRule;
+import com.example.wallet.transfer.fraud.VelocityTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FraudAnalysisService#analyzeFraud} на пачке событий, без Spring и БД.
+ * <p>
+ * {@code velocitySource=TRACKER}: счётчики из прогретого {@link VelocityTracker};
+ * {@code DATABASE}: трекер ещё не прогрет, и счётчики приходят из заглушки {@link TransferRepository}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyzeFraudBenchmark {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.parse("2025-01-01T12:00:00Z");
+
+    @Param({"1", "500"})
+    private int batchSize;
+
+    @Param({"TRACKER", "DATABASE"})
+    private String velocitySource;
+
+    private FraudAnalysisService service;
+
+    private List<TransferCompletedEvent> events;
+
+    @Setup
+    public void setUp() {
+        FraudProperties props = BenchmarkFraudProperties.create();
+        FraudRulePipeline pipeline = new FraudRulePipeline(
+                List.of(new AmountRule(props), new AccountAgeRule(), new VelocityRule(props)),
+                props,
+                new SimpleMeterRegistry()
+        );
+        OffsetDateTime trackerStart = velocitySource.equals("TRACKER") ? NOW.minusHours(1) : NOW;
+        VelocityTracker tracker = new VelocityTracker(props, Clock.fixed(trackerStart.toInstant(), NOW.getOffset()));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        service = new FraudAnalysisService(
+                stubTransferRepository(),
+                Clock.fixed(NOW.toInstant(), NOW.getOffset()),
+                props,
+                pipeline,
+                tracker,
+                new AccountMetadataCache(unusedAccountRepository(), cacheProperties(), meterRegistry),
+                new TransferMetrics(meterRegistry)
+        );
+
+        events = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            events.add(event(i));
+        }
+    }
+
+    @Benchmark
+    public Map<UUID, FraudAnalysisResult> analyzeFraud() {
+        return service.analyzeFraud(events);
+    }
+
+    /**
+     * Каждое десятое событие — крупная сумма со счёта, созданного пару часов назад: оно доходит до дорогих правил.
+     */
+    private static TransferCompletedEvent event(int i) {
+        boolean risky = i % 10 == 0;
+        return TransferCompletedEvent.builder()
+                .schemaVersion(TransferCompletedEvent.ENRICHED_SCHEMA_VERSION)
+                .transferId(UUID.randomUUID())
+                .fromAccountId(UUID.randomUUID())
+                .toAccountId(UUID.randomUUID())
+                .amount(new BigDecimal(risky ? "75000.00" : "100.00"))
+                .currency("RUB")
+                .fee(new BigDecimal("1.00"))
+                .createdAt(NOW)
+                .senderCreatedAt(risky ? NOW.minusHours(2) : NOW.minusDays(30))
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TransferRepository stubTransferRepository() {
+        return (TransferRepository) Proxy.newProxyInstance(
+                TransferRepository.class.getClassLoader(),
+                new Class<?>[]{TransferRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("countRecentTransfers")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    List<TransferRepository.RecentTransferCount> counts = new ArrayList<>();
+                    for (UUID accountId : (Collection<UUID>) args[0]) {
+                        counts.add(new TransferRepository.RecentTransferCount() {
+                            @Override
+                            public UUID getAccountId() {
+                                return accountId;
+                            }
+
+                            @Override
+                            public long getCount() {
+                                return 2;
+                            }
+                        });
+                    }
+                    return counts;
+                }
+        );
+    }
+
+    /**
+     * События в бенчмарке новой схемы, поэтому кэш счетов к репозиторию не обращается.
+     */
+    private static AccountRepository unusedAccountRepository() {
+        return (AccountRepository) Proxy.newProxyInstance(
+                AccountRepository.class.getClassLoader(),
+                new Class<?>[]{AccountRepository.class},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+
+    private static AccountCacheProperties cacheProperties() {
+        AccountCacheProperties properties = new AccountCacheProperties();
+        properties.setMetadataMaxSize(1000);
+        properties.setNameTtlMs(60_000);
+        return properties;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.common.MoneyConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Денежная арифметика перевода: нормализация суммы, комиссия и проверки баланса и дневного лимита.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    /**
+     * Сумма в запросе: уже с двумя знаками, с лишними знаками и минимальная (комиссия по минимуму).
+     */
+    @Param({"1250.50", "99.999", "0.01"})
+    private String amount;
+
+    private BigDecimal requested;
+
+    private BigDecimal normalized;
+
+    private BigDecimal balance;
+
+    private BigDecimal dailyTotal;
+
+    @Setup
+    public void setUp() {
+        requested = new BigDecimal(amount);
+        normalized = TransferService.normalize(requested);
+        balance = new BigDecimal("100000.00");
+        dailyTotal = new BigDecimal("250000.00");
+    }
+
+    @Benchmark
+    public BigDecimal normalize() {
+        return TransferService.normalize(requested);
+    }
+
+    @Benchmark
+    public BigDecimal calculateFee() {
+        return TransferService.calculateFee(normalized);
+    }
+
+    /**
+     * Всё, что {@code transferByAccounts} считает до обращения к БД.
+     */
+    @Benchmark
+    public boolean transferMath() {
+        BigDecimal normalizedAmount = TransferService.normalize(requested);
+        BigDecimal amountWithFee = normalizedAmount.add(TransferService.calculateFee(normalizedAmount));
+        return balance.compareTo(amountWithFee) >= 0
+                && dailyTotal.add(normalizedAmount).compareTo(MoneyConstants.DAILY_TRANSFER_LIMIT) <= 0;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.wallet.transfer.fraud;
+
+import com.example.wallet.configuration.FraudProperties;
+
+/**
+ * Настройки правил, как в {@code application.properties}.
+ */
+public final class BenchmarkFraudProperties {
+
+    private BenchmarkFraudProperties() {
+    }
+
+    public static FraudProperties create() {
+        FraudProperties props = new FraudProperties();
+        props.setScoreThresholdMedium(30);
+        props.setScoreThresholdHigh(60);
+        props.setVelocityTimeMinutes(5);
+        props.setVelocityLimitCount(3);
+        props.setHighAmountThreshold(100000);
+        props.setMidAmountThreshold(50000);
+        props.setVelocityBucketSeconds(10);
+        props.setVelocityMaxAccounts(100000);
+        props.setVelocitySnapshotPath("");
+        return props;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.wallet.transfer.fraud;
+
+import com.example.wallet.configuration.FraudProperties;
+import com.example.wallet.event.TransferCompletedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FraudRule#check} каждого правила на подозрительном и обычном переводе.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FraudRuleBenchmark {
+
+    @Param({"true", "false"})
+    private boolean suspicious;
+
+    private AmountRule amountRule;
+
+    private AccountAgeRule accountAgeRule;
+
+    private VelocityRule velocityRule;
+
+    private TransferCompletedEvent event;
+
+    private FraudCheckContext context;
+
+    @Setup
+    public void setUp() {
+        FraudProperties props = BenchmarkFraudProperties.create();
+        amountRule = new AmountRule(props);
+        accountAgeRule = new AccountAgeRule();
+        velocityRule = new VelocityRule(props);
+
+        OffsetDateTime now = OffsetDateTime.parse("2025-01-01T12:00:00Z");
+        event = TransferCompletedEvent.builder()
+                .schemaVersion(TransferCompletedEvent.ENRICHED_SCHEMA_VERSION)
+                .transferId(UUID.randomUUID())
+                .fromAccountId(UUID.randomUUID())
+                .toAccountId(UUID.randomUUID())
+                .amount(new BigDecimal(suspicious ? "150000.00" : "100.00"))
+                .currency("RUB")
+                .fee(new BigDecimal("1.00"))
+                .createdAt(now)
+                .senderCreatedAt(suspicious ? now.minusMinutes(5) : now.minusDays(30))
+                .build();
+        context = new FraudCheckContext(suspicious ? 50L : 1L, now);
+    }
+
+    @Benchmark
+    public Optional<FraudRuleResult> amountRule() {
+        return amountRule.check(event, context);
+    }
+
+    @Benchmark
+    public Optional<FraudRuleResult> accountAgeRule() {
+        return accountAgeRule.check(event, context);
+    }
+
+    @Benchmark
+    public Optional<FraudRuleResult> velocityRule() {
+        return velocityRule.check(event, context);
+    }
+}
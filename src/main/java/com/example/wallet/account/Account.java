@@ -62,6 +62,16 @@ public class Account {
     @Version
     private Long version;
 
+    /**
+     * Число слотов баланса. Больше нуля у горячих счетов; только увеличивается.
+     */
+    @Column(name = "balance_slots", nullable = false)
+    private int balanceSlots;
+
+    public boolean isHot() {
+        return balanceSlots > 0;
+    }
+
     @PrePersist
     void prePersist() {
         if (currency != null) currency = currency.toUpperCase();
@@ -0,0 +1,150 @@
+package com.example.wallet.account;
+
+import com.example.wallet.common.MoneyConstants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Изменение балансов с учётом горячих счетов.
+ * <p>
+ * У обычного счёта весь баланс хранится в строке {@code accounts}. У горячего счёта баланс равен
+ * сумме строки счёта и его слотов: зачисления идут в случайный слот и блокируют только его,
+ * списания идут из строки счёта (она должна быть заблокирована вызывающим), а при нехватке средств
+ * слоты сметаются в строку счёта.
+ * <p>
+ * Порядок блокировок: сначала все строки счетов в порядке {@link AccountLockingService#LOCK_ORDER},
+ * затем слоты. Зачисление держит ровно один слот счёта за транзакцию и после него не ждёт строк
+ * счетов, поэтому циклов ожидания не возникает.
+ * <p>
+ * Каждое изменение убирает счёт из {@link AccountReadCache} после завершения транзакции.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountBalanceService {
+
+    /**
+     * Причина отказа при нехватке средств; по ней же метрики переводов отличают этот отказ от остальных.
+     */
+    public static final String INSUFFICIENT_FUNDS = "Insufficient funds";
+
+    private static final String CHOSEN_SLOTS_RESOURCE = AccountBalanceService.class.getName() + ".chosenSlots";
+
+    private final AccountBalanceSlotRepository slotRepo;
+
+    private final AccountStatisticsService statisticsService;
+
+    private final AccountReadCache readCache;
+
+    /**
+     * Возвращает полный баланс счёта, включая слоты.
+     */
+    public BigDecimal balanceOf(Account account) {
+        if (!account.isHot()) {
+            return account.getBalance();
+        }
+        return account.getBalance().add(slotRepo.sumBalance(account.getId()));
+    }
+
+    /**
+     * Зачисляет средства. Строка обычного счёта должна быть заблокирована вызывающим.
+     */
+    public void credit(Account account, BigDecimal amount) {
+        readCache.evictAfterCommit(account.getId());
+        if (!account.isHot()) {
+            account.setBalance(account.getBalance().add(amount));
+            return;
+        }
+        AccountBalanceSlot slot = lockSlot(account);
+        slot.setBalance(slot.getBalance().add(amount));
+    }
+
+    /**
+     * Зачисляет входящий перевод и учитывает его во входящей статистике получателя.
+     * Для горячего счёта статистика копится в том же слоте, чтобы не блокировать общую строку статистики.
+     */
+    public void creditTransfer(Account account, BigDecimal amount) {
+        readCache.evictAfterCommit(account.getId());
+        if (!account.isHot()) {
+            account.setBalance(account.getBalance().add(amount));
+            statisticsService.recordIncoming(account.getId(), amount);
+            return;
+        }
+        AccountBalanceSlot slot = lockSlot(account);
+        slot.setBalance(slot.getBalance().add(amount));
+        slot.setIncomingCount(slot.getIncomingCount() + 1);
+        slot.setTotalReceived(slot.getTotalReceived().add(amount));
+    }
+
+    /**
+     * Списывает средства. Строка счёта должна быть заблокирована вызывающим.
+     *
+     * @throws ResponseStatusException если средств недостаточно даже с учётом слотов
+     */
+    public void debit(Account account, BigDecimal amount) {
+        if (account.getBalance().compareTo(amount) < 0 && account.isHot()) {
+            sweep(account);
+        }
+        if (account.getBalance().compareTo(amount) < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, INSUFFICIENT_FUNDS);
+        }
+        account.setBalance(account.getBalance().subtract(amount));
+        readCache.evictAfterCommit(account.getId());
+    }
+
+    /**
+     * Переносит остатки всех слотов в строку счёта. Слоты блокируются по возрастанию номера.
+     * Строка счёта должна быть заблокирована вызывающим.
+     */
+    public void sweep(Account account) {
+        readCache.evictAfterCommit(account.getId());
+        BigDecimal zero = BigDecimal.ZERO.setScale(MoneyConstants.SCALE, RoundingMode.HALF_UP);
+        for (AccountBalanceSlot slot : slotRepo.findAllByAccountIdForUpdate(account.getId())) {
+            account.setBalance(account.getBalance().add(slot.getBalance()));
+            slot.setBalance(zero);
+        }
+    }
+
+    private AccountBalanceSlot lockSlot(Account account) {
+        AccountBalanceSlot.Key key = new AccountBalanceSlot.Key(account.getId(), chooseSlot(account));
+        return slotRepo.findByIdForUpdate(key)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found"));
+    }
+
+    /**
+     * Выбирает случайный слот, но в пределах одной транзакции всегда один и тот же для счёта:
+     * транзакция, держащая два слота одного счёта, могла бы взаимно заблокироваться с другой такой же.
+     */
+    @SuppressWarnings("unchecked")
+    private int chooseSlot(Account account) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return ThreadLocalRandom.current().nextInt(account.getBalanceSlots());
+        }
+        Map<UUID, Integer> chosen = (Map<UUID, Integer>) TransactionSynchronizationManager
+                .getResource(CHOSEN_SLOTS_RESOURCE);
+        if (chosen == null) {
+            chosen = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(CHOSEN_SLOTS_RESOURCE, chosen);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CHOSEN_SLOTS_RESOURCE);
+                }
+            });
+        }
+        return chosen.computeIfAbsent(
+                account.getId(),
+                id -> ThreadLocalRandom.current().nextInt(account.getBalanceSlots())
+        );
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.wallet.account;
+
+import com.example.wallet.common.MoneyConstants;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.UUID;
+
+/**
+ * Часть баланса «горячего» счёта.
+ * Зачисления на горячий счёт попадают в один из слотов и блокируют только его строку, а не строку счёта.
+ * Входящая статистика таких зачислений тоже копится в слоте.
+ */
+@Entity
+@Table(name = "account_balance_slots")
+@Getter
+@Setter
+@NoArgsConstructor
+public class AccountBalanceSlot {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "balance", nullable = false, precision = MoneyConstants.PRECISION, scale = MoneyConstants.SCALE)
+    private BigDecimal balance;
+
+    @Column(name = "incoming_count", nullable = false)
+    private long incomingCount;
+
+    @Column(name = "total_received", nullable = false,
+            precision = MoneyConstants.PRECISION, scale = MoneyConstants.SCALE)
+    private BigDecimal totalReceived;
+
+    public AccountBalanceSlot(UUID accountId, int slot) {
+        this.id = new Key(accountId, slot);
+        this.balance = BigDecimal.ZERO.setScale(MoneyConstants.SCALE, RoundingMode.HALF_UP);
+        this.totalReceived = BigDecimal.ZERO.setScale(MoneyConstants.SCALE, RoundingMode.HALF_UP);
+    }
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Column(name = "account_id", nullable = false, columnDefinition = "uuid")
+        private UUID accountId;
+
+        @Column(name = "slot", nullable = false)
+        private int slot;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.wallet.account;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlot, AccountBalanceSlot.Key> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountBalanceSlot s WHERE s.id = :id")
+    Optional<AccountBalanceSlot> findByIdForUpdate(@Param("id") AccountBalanceSlot.Key id);
+
+    /**
+     * Блокирует все слоты счёта в порядке возрастания номера слота.
+     *
+     * @param accountId идентификатор счёта
+     * @return заблокированные слоты
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountBalanceSlot s WHERE s.id.accountId = :accountId ORDER BY s.id.slot")
+    List<AccountBalanceSlot> findAllByAccountIdForUpdate(@Param("accountId") UUID accountId);
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM AccountBalanceSlot s WHERE s.id.accountId = :accountId")
+    BigDecimal sumBalance(@Param("accountId") UUID accountId);
+
+    List<AccountBalanceSlot> findAllByIdAccountId(UUID accountId);
+}
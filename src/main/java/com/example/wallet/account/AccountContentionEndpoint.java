@@ -0,0 +1,27 @@
+package com.example.wallet.account;
+
+import com.example.wallet.account.AccountContentionProfiler.ContentionReport;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code GET /actuator/contention?limit=N}: счета, за блокировку которых сильнее всего конкурируют переводы,
+ * см. {@link AccountContentionProfiler}.
+ */
+@Component
+@Endpoint(id = "contention")
+@RequiredArgsConstructor
+public class AccountContentionEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final AccountContentionProfiler profiler;
+
+    @ReadOperation
+    public ContentionReport contention(@Nullable Integer limit) {
+        return profiler.report(limit == null ? DEFAULT_LIMIT : limit);
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.wallet.account;
+
+import com.example.wallet.configuration.AccountLockProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ищет счета, за блокировку строк которых сильнее всего конкурируют переводы.
+ * <p>
+ * Учитывается доля {@code contentionSampleRate} блокировок: время ожидания {@code SELECT ... FOR UPDATE}
+ * и время удержания до конца транзакции. Счета отбираются алгоритмом space-saving по суммарному ожиданию:
+ * отслеживается не больше {@code contentionTopK} счетов, новый счёт вытесняет счёт с наименьшим весом
+ * и наследует этот вес как погрешность. Поэтому счёт, на который пришлось больше 1/K всего ожидания,
+ * гарантированно в списке, а вес каждого счёта завышен не больше чем на его {@code overestimate}.
+ * <p>
+ * Статистика собирается окнами по {@code wallet.account-locks.contention-window-ms}: отчёт содержит
+ * текущее окно и предыдущее законченное.
+ */
+@Component
+public class AccountContentionProfiler {
+
+    /**
+     * Корзины ожидания по степеням двойки микросекунд: корзина {@code i} — до {@code 2^i} мкс.
+     */
+    private static final int WAIT_BUCKETS = 32;
+
+    private final AccountLockProperties properties;
+
+    private final Clock clock;
+
+    private Window current;
+
+    private Window previous;
+
+    public AccountContentionProfiler(AccountLockProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.current = new Window(clock.instant());
+    }
+
+    /**
+     * Учитывает блокировку строки счёта, если она попала в выборку. Удержание считается до завершения
+     * текущей транзакции.
+     *
+     * @param waitNanos сколько ждали блокировку
+     */
+    public void recordLock(UUID accountId, long waitNanos) {
+        if (ThreadLocalRandom.current().nextDouble() >= properties.getContentionSampleRate()) {
+            return;
+        }
+        Window window = recordWait(accountId, waitNanos);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            long acquiredAt = System.nanoTime();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    recordHold(window, accountId, System.nanoTime() - acquiredAt);
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedRateString = "${wallet.account-locks.contention-window-ms}")
+    public synchronized void rotate() {
+        current.end = clock.instant();
+        previous = current;
+        current = new Window(current.end);
+    }
+
+    /**
+     * @param limit сколько самых спорных счетов вернуть из каждого окна
+     */
+    public synchronized ContentionReport report(int limit) {
+        return new ContentionReport(
+                properties.getContentionSampleRate(),
+                current.toReport(limit, clock.instant()),
+                previous == null ? null : previous.toReport(limit, previous.end)
+        );
+    }
+
+    synchronized Window recordWait(UUID accountId, long waitNanos) {
+        Window window = current;
+        Entry entry = window.entries.get(accountId);
+        if (entry == null) {
+            long inherited = 0;
+            if (window.entries.size() >= properties.getContentionTopK()) {
+                Entry evicted = window.entries.values().stream()
+                        .min(Comparator.comparingLong(e -> e.weightNanos))
+                        .orElseThrow();
+                window.entries.remove(evicted.accountId);
+                inherited = evicted.weightNanos;
+            }
+            entry = new Entry(accountId, inherited);
+            window.entries.put(accountId, entry);
+        }
+        entry.recordWait(waitNanos);
+        return window;
+    }
+
+    private synchronized void recordHold(Window window, UUID accountId, long holdNanos) {
+        Entry entry = window.entries.get(accountId);
+        if (entry != null) {
+            entry.holdSamples++;
+            entry.holdNanos += holdNanos;
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Window {
+
+        private final Instant start;
+
+        private final Map<UUID, Entry> entries = new HashMap<>();
+
+        private Instant end;
+
+        private Window(Instant start) {
+            this.start = start;
+        }
+
+        private WindowReport toReport(int limit, Instant until) {
+            List<AccountContention> accounts = new ArrayList<>();
+            entries.values().stream()
+                    .sorted(Comparator.comparingLong((Entry e) -> e.weightNanos).reversed())
+                    .limit(limit)
+                    .forEach(e -> accounts.add(e.toReport()));
+            return new WindowReport(start, until, accounts);
+        }
+    }
+
+    private static final class Entry {
+
+        private final UUID accountId;
+
+        private final long errorNanos;
+
+        private final long[] waitBuckets = new long[WAIT_BUCKETS];
+
+        private long weightNanos;
+
+        private long samples;
+
+        private long maxWaitNanos;
+
+        private long holdSamples;
+
+        private long holdNanos;
+
+        private Entry(UUID accountId, long inheritedNanos) {
+            this.accountId = accountId;
+            this.errorNanos = inheritedNanos;
+            this.weightNanos = inheritedNanos;
+        }
+
+        private void recordWait(long waitNanos) {
+            samples++;
+            weightNanos += waitNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+            long micros = Math.max(1, waitNanos / 1000);
+            int bucket = 64 - Long.numberOfLeadingZeros(micros - 1);
+            waitBuckets[Math.min(bucket, WAIT_BUCKETS - 1)]++;
+        }
+
+        /**
+         * @return верхняя граница корзины, в которую попал перцентиль, но не больше максимума
+         */
+        private double waitPercentileMs(double percentile) {
+            long rank = (long) Math.ceil(samples * percentile);
+            long seen = 0;
+            for (int i = 0; i < WAIT_BUCKETS; i++) {
+                seen += waitBuckets[i];
+                if (seen >= rank) {
+                    return Math.min((1L << i) / 1000.0, millis(maxWaitNanos));
+                }
+            }
+            return millis(maxWaitNanos);
+        }
+
+        private AccountContention toReport() {
+            return new AccountContention(
+                    accountId,
+                    samples,
+                    millis(weightNanos),
+                    millis(errorNanos),
+                    waitPercentileMs(0.5),
+                    waitPercentileMs(0.99),
+                    millis(maxWaitNanos),
+                    holdSamples == 0 ? 0 : millis(holdNanos / holdSamples)
+            );
+        }
+    }
+
+    /**
+     * @param sampleRate доля учтённых блокировок; суммы и число выборок не масштабируются на неё
+     * @param previous   последнее законченное окно, {@code null} до первой смены окна
+     */
+    public record ContentionReport(double sampleRate, WindowReport current, WindowReport previous) {
+
+    }
+
+    /**
+     * @param accounts счета по убыванию суммарного ожидания
+     */
+    public record WindowReport(Instant from, Instant to, List<AccountContention> accounts) {
+
+    }
+
+    /**
+     * Перцентили приблизительные: ожидание хранится в корзинах по степеням двойки.
+     *
+     * @param totalWaitMs    суммарное ожидание учтённых блокировок, включая {@code overestimateMs}
+     * @param overestimateMs на сколько {@code totalWaitMs} может быть завышено из-за вытеснения
+     */
+    public record AccountContention(UUID accountId, long samples, double totalWaitMs, double overestimateMs,
+                                    double waitP50Ms, double waitP99Ms, double waitMaxMs, double avgHoldMs) {
+
+    }
+}
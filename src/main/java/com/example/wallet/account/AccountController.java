@@ -1,16 +1,25 @@
 package com.example.wallet.account;
 
+import com.example.wallet.account.dto.AccountPage;
 import com.example.wallet.account.dto.AccountResponse;
 import com.example.wallet.account.dto.AccountStatisticsResponse;
 import com.example.wallet.account.dto.BalanceResponse;
 import com.example.wallet.account.dto.CreateAccountRequest;
 import com.example.wallet.account.dto.DepositRequest;
 import com.example.wallet.account.dto.WithdrawRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,7 +31,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
@@ -35,6 +49,8 @@ public class AccountController {
 
     private final AccountService service;
 
+    private final ObjectMapper objectMapper;
+
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
     public AccountResponse create(@Valid @RequestBody CreateAccountRequest req) {
@@ -46,9 +62,51 @@ public class AccountController {
         return service.get(id);
     }
 
+    /**
+     * Все счета JSON-массивом. Массив пишется в ответ по мере чтения из БД, без загрузки счетов в память.
+     */
+    @GetMapping(params = {"!cursor", "!limit"})
+    public ResponseEntity<StreamingResponseBody> listAll() {
+        ObjectWriter writer = objectMapper.writerFor(AccountResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)
+                    .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)) {
+                json.writeStartArray();
+                service.streamAll(account -> writeElement(writer, json, account));
+                json.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Страница счетов, если передан {@code cursor} или {@code limit}. Ответ — такой же массив, как без них,
+     * а ссылка на следующую страницу передаётся в заголовке {@code Link} с {@code rel="next"}.
+     */
     @GetMapping
-    public List<AccountResponse> list() {
-        return service.list();
+    public ResponseEntity<List<AccountResponse>> list(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @Min(1) Integer limit
+    ) {
+        AccountPage page = service.list(cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.getNextCursor())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.getItems());
+    }
+
+    /**
+     * Все счета в формате NDJSON, по одному на строку ({@code Accept: application/x-ndjson}).
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = out -> service.streamAll(account -> writeLine(out, account));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/by-name/{ownerName}")
@@ -101,8 +159,33 @@ public class AccountController {
         return service.getStatistics(id);
     }
 
+    @PostMapping("/{id}/balance-slots")
+    public AccountResponse setBalanceSlots(
+            @PathVariable UUID id,
+            @RequestParam @Min(1) @Max(64) int count
+    ) {
+        return service.setBalanceSlots(id, count);
+    }
+
     @PostMapping("/{id}/bonus")
     public AccountResponse addBonus(@PathVariable UUID id, @RequestParam BigDecimal amount) {
         return service.addBonus(id, amount);
     }
+
+    private static void writeElement(ObjectWriter writer, JsonGenerator json, AccountResponse account) {
+        try {
+            writer.writeValue(json, account);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeLine(OutputStream out, AccountResponse account) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(account));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
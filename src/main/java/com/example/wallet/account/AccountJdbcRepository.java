@@ -0,0 +1,73 @@
+package com.example.wallet.account;
+
+import com.example.wallet.account.dto.AccountResponse;
+import com.example.wallet.configuration.AccountListProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Чтение списка счетов без загрузки сущностей: страницы по id и потоковая выгрузка через курсор.
+ * <p>
+ * Баланс горячего счёта складывается с его слотами в том же запросе.
+ */
+@Repository
+public class AccountJdbcRepository {
+
+    private static final String SELECT = "SELECT a.id, a.owner_name, a.currency, a.created_at, "
+            + "CASE WHEN a.balance_slots > 0 "
+            + "THEN a.balance + (SELECT COALESCE(SUM(s.balance), 0) FROM account_balance_slots s "
+            + "WHERE s.account_id = a.id) "
+            + "ELSE a.balance END AS balance "
+            + "FROM accounts a ";
+
+    private static final RowMapper<AccountResponse> ROW_MAPPER = (rs, rowNum) -> new AccountResponse(
+            rs.getObject("id", UUID.class),
+            rs.getString("owner_name"),
+            rs.getString("currency"),
+            rs.getBigDecimal("balance"),
+            rs.getObject("created_at", OffsetDateTime.class)
+    );
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    private final JdbcTemplate streamingJdbc;
+
+    public AccountJdbcRepository(NamedParameterJdbcTemplate jdbc, DataSource dataSource,
+                                 AccountListProperties properties) {
+        this.jdbc = jdbc;
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(properties.getStreamFetchSize());
+    }
+
+    /**
+     * @param after id последнего счёта предыдущей страницы или {@code null} для первой страницы
+     * @return до {@code limit} счетов с id больше {@code after} по возрастанию id
+     */
+    public List<AccountResponse> findPage(UUID after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        if (after == null) {
+            return jdbc.query(SELECT + "ORDER BY a.id LIMIT :limit", params, ROW_MAPPER);
+        }
+        return jdbc.query(SELECT + "WHERE a.id > :after ORDER BY a.id LIMIT :limit",
+                params.addValue("after", after), ROW_MAPPER);
+    }
+
+    /**
+     * Передаёт все счета по возрастанию id, не держа их в памяти. PostgreSQL читает курсором
+     * по {@code streamFetchSize} строк только внутри транзакции, иначе загружает весь результат.
+     */
+    public void streamAll(Consumer<AccountResponse> action) {
+        RowCallbackHandler handler = rs -> action.accept(ROW_MAPPER.mapRow(rs, rs.getRow()));
+        streamingJdbc.query(SELECT + "ORDER BY a.id", handler);
+    }
+}
@@ -1,62 +1,178 @@
 package com.example.wallet.account;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Время получения блокировок строк пишется в таймер {@code wallet.account.lock.acquire}
+ * с тегом {@code mode}: {@code pair} — два счёта перевода, {@code batch} — счета пакетного перевода.
+ * Поштучные блокировки счетов дополнительно учитывает {@link AccountContentionProfiler}; пакетные — нет,
+ * их ожидание не делится по счетам.
+ */
 @Service
-@RequiredArgsConstructor
 public class AccountLockingService {
 
+    /**
+     * Глобальный порядок блокировки счетов.
+     * Совпадает с сортировкой uuid в PostgreSQL и H2 (беззнаковое сравнение), поэтому
+     * {@code SELECT ... ORDER BY id FOR UPDATE} блокирует строки в том же порядке, что и поштучные блокировки.
+     */
+    public static final Comparator<UUID> LOCK_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private static final int LOCK_CHUNK_SIZE = 1000;
+
     private final AccountRepository accountRepo;
 
+    private final HotAccountRegistry hotAccounts;
+
+    private final AccountStripeLocks stripeLocks;
+
+    private final AccountMetadataCache metadataCache;
+
+    private final AccountContentionProfiler contentionProfiler;
+
+    private final Timer pairLockTimer;
+
+    private final Timer batchLockTimer;
+
+    public AccountLockingService(AccountRepository accountRepo, HotAccountRegistry hotAccounts,
+                                 AccountStripeLocks stripeLocks, AccountMetadataCache metadataCache,
+                                 AccountContentionProfiler contentionProfiler, MeterRegistry meterRegistry) {
+        this.accountRepo = accountRepo;
+        this.hotAccounts = hotAccounts;
+        this.stripeLocks = stripeLocks;
+        this.metadataCache = metadataCache;
+        this.contentionProfiler = contentionProfiler;
+        this.pairLockTimer = lockTimer(meterRegistry, "pair");
+        this.batchLockTimer = lockTimer(meterRegistry, "batch");
+    }
+
     public AccountPair lockTwoAccounts(UUID fromId, UUID toId) {
         if (fromId.equals(toId)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from and to must differ");
         }
+        return pairLockTimer.record(() -> lockInOrder(fromId, toId));
+    }
 
-        UUID first = fromId.compareTo(toId) < 0 ? fromId : toId;
-        UUID second = fromId.compareTo(toId) < 0 ? toId : fromId;
+    /**
+     * Ставит перевод {@code fromId -> toId} в очередь в памяти процесса, см. {@link AccountStripeLocks}.
+     * Вызывать в начале транзакции, до первого запроса к БД. Горячий получатель в очередь не ставится,
+     * иначе зачисления на него снова пошли бы по одному.
+     */
+    public void queueForTransfer(UUID fromId, UUID toId) {
+        stripeLocks.lock(hotAccounts.isHot(toId) ? List.of(fromId) : List.of(fromId, toId));
+    }
 
-        Account firstAcc = findAndLock(first);
-        Account secondAcc = findAndLock(second);
+    /**
+     * Ставит набор счетов в очередь в памяти процесса, см. {@link AccountStripeLocks}.
+     * Вызывать в начале транзакции, до первого запроса к БД.
+     */
+    public void queueAccounts(Collection<UUID> ids) {
+        stripeLocks.lock(ids);
+    }
 
-        Account from = firstAcc.getId().equals(fromId) ? firstAcc : secondAcc;
-        Account to = firstAcc.getId().equals(toId) ? firstAcc : secondAcc;
+    /**
+     * Блокирует счета для перевода {@code fromId -> toId}.
+     * Строка горячего счёта-получателя не блокируется: зачисление на него пойдёт в слот,
+     * см. {@link AccountBalanceService}. Для остальных счетов работает как {@link #lockTwoAccounts}.
+     */
+    public AccountPair lockForTransfer(UUID fromId, UUID toId) {
+        if (fromId.equals(toId) || !hotAccounts.isHot(toId)) {
+            return lockTwoAccounts(fromId, toId);
+        }
+        Account from = pairLockTimer.record(() -> findAndLock(fromId));
+        return new AccountPair(from, find(toId));
+    }
 
-        return new AccountPair(from, to);
+    /**
+     * Читает счета для перевода {@code fromId -> toId} без блокировок строк.
+     * Параллельные изменения этих счетов обнаруживаются проверкой {@code @Version} при записи.
+     */
+    public AccountPair readForTransfer(UUID fromId, UUID toId) {
+        if (fromId.equals(toId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from and to must differ");
+        }
+        return new AccountPair(find(fromId), find(toId));
+    }
+
+    /**
+     * Блокирует набор счетов в глобальном порядке {@link #LOCK_ORDER}.
+     * Счета запрашиваются пачками, каждая пачка блокируется одним запросом.
+     *
+     * @param ids идентификаторы счетов (дубликаты допускаются)
+     * @return заблокированные счета по id; отсутствующих в БД счетов в результате нет
+     */
+    public Map<UUID, Account> lockAccounts(Collection<UUID> ids) {
+        List<UUID> ordered = ids.stream().distinct().sorted(LOCK_ORDER).toList();
+        Map<UUID, Account> locked = new HashMap<>();
+
+        batchLockTimer.record(() -> {
+            for (int i = 0; i < ordered.size(); i += LOCK_CHUNK_SIZE) {
+                List<UUID> chunk = ordered.subList(i, Math.min(i + LOCK_CHUNK_SIZE, ordered.size()));
+                accountRepo.findAllByIdForUpdate(chunk).forEach(a -> locked.put(a.getId(), a));
+            }
+        });
+        return locked;
     }
 
-    public AccountPair lockTwoAccountsByName(String fromName, String toName, String currency) {
-        boolean isFromFirst = fromName.compareToIgnoreCase(toName) < 0;
-        String first = isFromFirst ? fromName : toName;
-        String second = isFromFirst ? toName : fromName;
+    public record AccountPair(Account from, Account to) {
 
-        Account firstAcc = findAndLockByName(first, currency);
-        Account secondAcc = findAndLockByName(second, currency);
+    }
 
-        Account from = isFromFirst ? firstAcc : secondAcc;
-        Account to = isFromFirst ? secondAcc : firstAcc;
+    private AccountPair lockInOrder(UUID fromId, UUID toId) {
+        boolean isFromFirst = LOCK_ORDER.compare(fromId, toId) < 0;
+        UUID first = isFromFirst ? fromId : toId;
+        UUID second = isFromFirst ? toId : fromId;
+
+        Account firstAcc = findAndLock(first);
+        Account secondAcc = findAndLock(second);
+
+        Account from = firstAcc.getId().equals(fromId) ? firstAcc : secondAcc;
+        Account to = firstAcc.getId().equals(toId) ? firstAcc : secondAcc;
 
         return new AccountPair(from, to);
     }
 
-    public record AccountPair(Account from, Account to) {
-
+    private Account find(UUID id) {
+        return accountRepo.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found"));
     }
 
     private Account findAndLock(UUID id) {
-        return accountRepo.findByIdForUpdate(id)
+        long start = System.nanoTime();
+        Account account = accountRepo.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found"));
+        contentionProfiler.recordLock(id, System.nanoTime() - start);
+        return account;
+    }
+
+    private static Timer lockTimer(MeterRegistry meterRegistry, String mode) {
+        return Timer.builder("wallet.account.lock.acquire")
+                .description("Time spent acquiring database row locks on accounts")
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
-    //TODO исправить дедлок возможный при одновременных транзакциях по id и по имени с обратным порядком тех же
-    // пользователей
-    private Account findAndLockByName(String name, String currency) {
-        return accountRepo.findByNameAndCurrencyForUpdate(name, currency)
+    /**
+     * Находит id счёта по имени владельца без блокировок. Переводы по именам затем ставятся в очередь
+     * и блокируются по id так же, как переводы по id, то есть в едином порядке {@link #LOCK_ORDER},
+     * поэтому взаимно заблокироваться они не могут.
+     */
+    public UUID resolveId(String name, String currency) {
+        return metadataCache.findIdByName(name, currency)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found: " + name));
     }
 }
@@ -0,0 +1,11 @@
+package com.example.wallet.account;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Поля счёта, которые не меняются после создания.
+ */
+public record AccountMetadata(UUID id, String ownerName, String currency, OffsetDateTime createdAt) {
+
+}
@@ -0,0 +1,101 @@
+package com.example.wallet.account;
+
+import com.example.wallet.configuration.AccountCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Кэш неизменяемых полей счетов и соответствия (имя владельца, валюта) → id.
+ * <p>
+ * Имя, валюта и время создания счёта не меняются, поэтому записи по id не устаревают и вытесняются только
+ * по размеру или при удалении счёта. Соответствие имени и id устаревает, если счёт удалён на другом узле и
+ * создан заново с тем же именем, поэтому оно живёт не дольше {@code nameTtlMs}.
+ * Отсутствующие счета не кэшируются: счёт, созданный позже, будет найден.
+ */
+@Component
+public class AccountMetadataCache {
+
+    private final AccountRepository accountRepo;
+
+    private final Cache<UUID, AccountMetadata> metadataById;
+
+    private final Cache<NameKey, UUID> idsByName;
+
+    public AccountMetadataCache(AccountRepository accountRepo, AccountCacheProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.accountRepo = accountRepo;
+        this.metadataById = Caffeine.newBuilder()
+                .maximumSize(properties.getMetadataMaxSize())
+                .recordStats()
+                .build();
+        this.idsByName = Caffeine.newBuilder()
+                .maximumSize(properties.getMetadataMaxSize())
+                .expireAfterWrite(Duration.ofMillis(properties.getNameTtlMs()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, metadataById, "account.metadata");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByName, "account.ids-by-name");
+    }
+
+    /**
+     * @return найденные счета по id; недостающие загружаются одним запросом
+     */
+    public Map<UUID, AccountMetadata> getAll(Collection<UUID> ids) {
+        return metadataById.getAll(ids, missing -> {
+            Map<UUID, AccountMetadata> loaded = new HashMap<>();
+            for (AccountMetadata metadata : accountRepo.findMetadataByIds(Set.copyOf(missing))) {
+                loaded.put(metadata.id(), metadata);
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * Ищет id счёта по имени владельца без учёта регистра.
+     */
+    public Optional<UUID> findIdByName(String ownerName, String currency) {
+        NameKey key = new NameKey(ownerName.toLowerCase(Locale.ROOT), currency);
+        return Optional.ofNullable(idsByName.get(key,
+                k -> accountRepo.findIdByNameAndCurrency(ownerName, currency).orElse(null)));
+    }
+
+    /**
+     * Убирает счёт из кэша после коммита текущей транзакции, чтобы параллельное чтение до коммита
+     * не вернуло его обратно. Вне транзакции убирает сразу.
+     */
+    public void evictAfterCommit(Account account) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(account);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(account);
+            }
+        });
+    }
+
+    private void evict(Account account) {
+        metadataById.invalidate(account.getId());
+        idsByName.invalidate(new NameKey(account.getOwnerName().toLowerCase(Locale.ROOT), account.getCurrency()));
+    }
+
+    private record NameKey(String lowerCaseName, String currency) {
+
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.wallet.account;
+
+import com.example.wallet.account.dto.AccountResponse;
+import com.example.wallet.configuration.AccountCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Кэш счетов с балансом для {@code GET /accounts/{id}} и {@code GET /accounts/{id}/balance}.
+ * <p>
+ * Всё, что меняет баланс, вызывает {@link #evictAfterCommit}: запись убирается после завершения транзакции.
+ * Загрузка и удаление одного ключа в Caffeine не пересекаются, поэтому значение, прочитанное до коммита,
+ * удаляется вслед за ним, и чтение, начатое после завершения транзакции, видит её результат.
+ * Изменения на других узлах этот узел не видит, их устаревание ограничено {@code readTtlMs}.
+ * Попадания и промахи — метрика {@code cache.gets{cache=account.read}}.
+ */
+@Component
+public class AccountReadCache {
+
+    private static final String PENDING_EVICTIONS_RESOURCE = AccountReadCache.class.getName() + ".pendingEvictions";
+
+    private final Cache<UUID, AccountResponse> accounts;
+
+    public AccountReadCache(AccountCacheProperties properties, MeterRegistry meterRegistry) {
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(properties.getReadMaxSize())
+                .expireAfterWrite(Duration.ofMillis(properties.getReadTtlMs()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, accounts, "account.read");
+    }
+
+    /**
+     * @param loader читает счёт из БД; исключение не кэшируется и пробрасывается
+     */
+    public AccountResponse get(UUID id, Function<UUID, AccountResponse> loader) {
+        return accounts.get(id, loader);
+    }
+
+    /**
+     * Убирает счёт из кэша после завершения текущей транзакции, в том числе после отката: при неизвестном
+     * исходе коммита лишний промах безопаснее устаревшего баланса. Вне транзакции убирает сразу.
+     */
+    @SuppressWarnings("unchecked")
+    public void evictAfterCommit(UUID id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accounts.invalidate(id);
+            return;
+        }
+        Set<UUID> pending = (Set<UUID>) TransactionSynchronizationManager.getResource(PENDING_EVICTIONS_RESOURCE);
+        if (pending == null) {
+            Set<UUID> ids = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_EVICTIONS_RESOURCE, ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_EVICTIONS_RESOURCE);
+                    accounts.invalidateAll(ids);
+                }
+            });
+            pending = ids;
+        }
+        pending.add(id);
+    }
+}
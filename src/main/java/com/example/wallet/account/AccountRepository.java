@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -22,12 +24,29 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     @Query("SELECT a FROM Account a WHERE a.id = :id")
     Optional<Account> findByIdForUpdate(@Param("id") UUID id);
 
-    Optional<Account> findByOwnerNameIgnoreCaseAndCurrency(String ownerName, String currency);
-
+    /**
+     * Находит и блокирует набор счетов в порядке возрастания id.
+     *
+     * @param ids идентификаторы счетов
+     * @return заблокированные счета, отсортированные по id
+     */
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT a FROM Account a WHERE LOWER(a.ownerName) = LOWER(:name) AND a.currency = :currency")
-    Optional<Account> findByNameAndCurrencyForUpdate(
-            @Param("name") String name,
-            @Param("currency") String currency
-    );
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT a.id FROM Account a WHERE a.balanceSlots > 0")
+    List<UUID> findHotAccountIds();
+
+    /**
+     * Ищет id счёта по имени владельца без загрузки сущности: загруженная без блокировки сущность осталась бы
+     * в контексте персистентности, и последующий {@code SELECT ... FOR UPDATE} вернул бы её старое состояние.
+     * В PostgreSQL запрос идёт по индексу {@code idx_owner_lower_currency (lower(owner_name), currency)}:
+     * индекс по {@code owner_name} для сравнения без учёта регистра не подходит.
+     */
+    @Query("SELECT a.id FROM Account a WHERE LOWER(a.ownerName) = LOWER(:name) AND a.currency = :currency")
+    Optional<UUID> findIdByNameAndCurrency(@Param("name") String name, @Param("currency") String currency);
+
+    @Query("SELECT new com.example.wallet.account.AccountMetadata(a.id, a.ownerName, a.currency, a.createdAt) "
+            + "FROM Account a WHERE a.id IN :ids")
+    List<AccountMetadata> findMetadataByIds(@Param("ids") Collection<UUID> ids);
 }
\ No newline at end of file
@@ -1,10 +1,11 @@
 package com.example.wallet.account;
 
+import com.example.wallet.account.dto.AccountPage;
 import com.example.wallet.account.dto.AccountResponse;
 import com.example.wallet.account.dto.AccountStatisticsResponse;
 import com.example.wallet.account.dto.BalanceResponse;
 import com.example.wallet.common.MoneyConstants;
-import com.example.wallet.transfer.TransferRepository;
+import com.example.wallet.configuration.AccountListProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -19,8 +20,13 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -31,7 +37,21 @@ public class AccountService {
 
     private final AccountRepository accountRepo;
 
-    private final TransferRepository transferRepo;
+    private final AccountStatisticsRepository statisticsRepo;
+
+    private final AccountBalanceSlotRepository slotRepo;
+
+    private final AccountBalanceService balances;
+
+    private final HotAccountRegistry hotAccounts;
+
+    private final AccountMetadataCache metadataCache;
+
+    private final AccountJdbcRepository accountJdbcRepo;
+
+    private final AccountListProperties listProperties;
+
+    private final AccountReadCache readCache;
 
     public AccountResponse create(String ownerName, String currency) {
         Account a = Account.builder()
@@ -50,16 +70,18 @@ public class AccountService {
         }
     }
 
+    /**
+     * Читает счёт через {@link AccountReadCache}.
+     *
+     * @throws ResponseStatusException если счёт не найден
+     */
     public AccountResponse get(UUID id) {
-        Account a = accountRepo.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, ACCOUNT_NOT_FOUND));
-        return toResponse(a);
+        return readCache.get(id, this::load);
     }
 
     public BalanceResponse getBalance(UUID id) {
-        Account a = accountRepo.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, ACCOUNT_NOT_FOUND));
-        return new BalanceResponse(a.getBalance(), a.getCurrency());
+        AccountResponse account = get(id);
+        return new BalanceResponse(account.getBalance(), account.getCurrency());
     }
 
     /**
@@ -72,44 +94,60 @@ public class AccountService {
      */
     @Transactional
     public AccountResponse deposit(UUID id, BigDecimal amount) {
-        Account a = accountRepo.findByIdForUpdate(id)
+        Optional<Account> found = hotAccounts.isHot(id) ? accountRepo.findById(id) : accountRepo.findByIdForUpdate(id);
+        Account a = found
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, ACCOUNT_NOT_FOUND));
 
         BigDecimal normalized = amount.setScale(MoneyConstants.SCALE, RoundingMode.HALF_UP);
-        a.setBalance(a.getBalance().add(normalized));
+        balances.credit(a, normalized);
 
         return toResponse(a);
     }
 
-    public List<AccountResponse> list() {
-        return accountRepo.findAll().stream().map(AccountService::toResponse).toList();
+    /**
+     * Возвращает страницу счетов по возрастанию id.
+     *
+     * @param cursor {@code nextCursor} предыдущей страницы или {@code null} для первой страницы
+     * @param limit  размер страницы; {@code null} — размер по умолчанию, больше максимального — максимальный
+     * @throws ResponseStatusException если курсор не удаётся разобрать
+     */
+    public AccountPage list(String cursor, Integer limit) {
+        int pageSize = limit == null
+                ? listProperties.getDefaultPageSize()
+                : Math.min(limit, listProperties.getMaxPageSize());
+        UUID after = cursor == null ? null : decodeCursor(cursor);
+
+        List<AccountResponse> page = accountJdbcRepo.findPage(after, pageSize + 1);
+        if (page.size() <= pageSize) {
+            return new AccountPage(page, null);
+        }
+        List<AccountResponse> items = page.subList(0, pageSize);
+        return new AccountPage(items, encodeCursor(items.get(pageSize - 1).getId()));
+    }
+
+    /**
+     * Передаёт все счета по возрастанию id, не загружая их в память целиком.
+     * Транзакция нужна, чтобы PostgreSQL читал результат курсором.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<AccountResponse> action) {
+        accountJdbcRepo.streamAll(action);
     }
 
     public AccountResponse getByName(String ownerName, String currency) {
-        Account a = accountRepo.findByOwnerNameIgnoreCaseAndCurrency(ownerName, currency.toUpperCase())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, ACCOUNT_NOT_FOUND));
-        return toResponse(a);
+        return get(resolveId(ownerName, currency));
     }
 
     @Transactional
     public AccountResponse depositByName(String ownerName, String currency, BigDecimal amount) {
-        Account account = accountRepo.findByNameAndCurrencyForUpdate(ownerName, currency.toUpperCase())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, ACCOUNT_NOT_FOUND));
-
-        BigDecimal normalized = amount.setScale(MoneyConstants.SCALE, RoundingMode.HALF_UP);
-        account.setBalance(account.getBalance().add(normalized));
-
-        return toResponse(account);
+        return deposit(resolveId(ownerName, currency), amount);
     }
 
     @Transactional
     public AccountResponse withdraw(UUID id, BigDecimal amount) {
         Account from = accountRepo.findByIdForUpdate(id)
                 .orElseThrow((() -> new ResponseStatusException(HttpStatus.NOT_FOUND, ACCOUNT_NOT_FOUND)));
-        if (from.getBalance().compareTo(amount) < 0) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient funds");
-        }
-        from.setBalance(from.getBalance().subtract(amount));
+        balances.debit(from, amount);
         return toResponse(from);
 
     }
@@ -118,8 +156,14 @@ public class AccountService {
     public void delete(UUID id) {
         Account toDelete = accountRepo.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, ACCOUNT_NOT_FOUND));
+        if (toDelete.isHot()) {
+            balances.sweep(toDelete);
+        }
         if (toDelete.getBalance().compareTo(BigDecimal.ZERO) == 0) {
+            slotRepo.deleteAll(slotRepo.findAllByIdAccountId(id));
             accountRepo.delete(toDelete);
+            metadataCache.evictAfterCommit(toDelete);
+            readCache.evictAfterCommit(id);
         } else {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
@@ -131,17 +175,57 @@ public class AccountService {
     public AccountStatisticsResponse getStatistics(UUID id) {
         Account account = accountRepo.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, ACCOUNT_NOT_FOUND));
+        AccountStatistics statistics = statisticsRepo.findById(id)
+                .orElseGet(() -> new AccountStatistics(id));
+
+        long incomingCount = statistics.getIncomingCount();
+        BigDecimal totalReceived = statistics.getTotalReceived();
+        if (account.isHot()) {
+            for (AccountBalanceSlot slot : slotRepo.findAllByIdAccountId(id)) {
+                incomingCount += slot.getIncomingCount();
+                totalReceived = totalReceived.add(slot.getTotalReceived());
+            }
+        }
         return new AccountStatisticsResponse(
-                account.getBalance(),
-                transferRepo.countIncomingTransfersById(id),
-                transferRepo.countOutgoingTransfersById(id),
-                transferRepo.sumIncomingTransfers(id),
-                transferRepo.sumOutgoingTransfers(id)
+                balances.balanceOf(account),
+                incomingCount,
+                statistics.getOutgoingCount(),
+                totalReceived,
+                statistics.getTotalSent()
         );
     }
 
+    /**
+     * Делает счёт горячим или увеличивает число его слотов баланса.
+     * Уменьшать число слотов нельзя: узлы, ещё не знающие о новом значении, могут продолжать писать в старые слоты.
+     *
+     * @param id    идентификатор счёта
+     * @param count новое число слотов
+     * @return информация о счёте
+     * @throws ResponseStatusException если счёт не найден или число слотов уменьшается
+     */
+    @Transactional
+    public AccountResponse setBalanceSlots(UUID id, int count) {
+        Account account = accountRepo.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, ACCOUNT_NOT_FOUND));
+        if (count < account.getBalanceSlots()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "balance slots can only be increased");
+        }
+
+        List<AccountBalanceSlot> newSlots = new ArrayList<>();
+        for (int slot = account.getBalanceSlots(); slot < count; slot++) {
+            newSlots.add(new AccountBalanceSlot(id, slot));
+        }
+        slotRepo.saveAll(newSlots);
+        account.setBalanceSlots(count);
+
+        hotAccounts.registerAfterCommit(id);
+        return toResponse(account);
+    }
+
     @Retryable(
             retryFor = ObjectOptimisticLockingFailureException.class,
+            notRecoverable = ResponseStatusException.class,
             maxAttempts = 3,
             backoff = @Backoff(delay = 1000)
     )
@@ -152,6 +236,7 @@ public class AccountService {
 
         log.info("Поток " + Thread.currentThread().getName() + " прочитал версию: " + account.getVersion());
         account.setBalance(account.getBalance().add(bonusAmount));
+        readCache.evictAfterCommit(id);
         return toResponse(account);
     }
 
@@ -160,12 +245,44 @@ public class AccountService {
         throw new ResponseStatusException(HttpStatus.CONFLICT, "Something went wrong, please try again later");
     }
 
-    private static AccountResponse toResponse(Account a) {
+    private UUID resolveId(String ownerName, String currency) {
+        return metadataCache.findIdByName(ownerName, currency.toUpperCase())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, ACCOUNT_NOT_FOUND));
+    }
+
+    static String encodeCursor(UUID id) {
+        ByteBuffer bytes = ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+    }
+
+    static UUID decodeCursor(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            bytes = new byte[0];
+        }
+        if (bytes.length != 16) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private AccountResponse load(UUID id) {
+        Account a = accountRepo.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, ACCOUNT_NOT_FOUND));
+        return toResponse(a);
+    }
+
+    private AccountResponse toResponse(Account a) {
         return new AccountResponse(
                 a.getId(),
                 a.getOwnerName(),
                 a.getCurrency(),
-                a.getBalance(),
+                balances.balanceOf(a),
                 a.getCreatedAt()
         );
     }
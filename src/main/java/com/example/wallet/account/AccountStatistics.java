@@ -0,0 +1,73 @@
+package com.example.wallet.account;
+
+import com.example.wallet.common.MoneyConstants;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.UUID;
+
+/**
+ * Накопленная статистика переводов счёта.
+ * Учитываются только завершённые переводы; отмена перевода вычитает его обратно.
+ */
+@Entity
+@Table(name = "account_statistics")
+@Getter
+@Setter
+@NoArgsConstructor
+public class AccountStatistics implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "account_id", columnDefinition = "uuid")
+    private UUID accountId;
+
+    @Column(name = "incoming_count", nullable = false)
+    private long incomingCount;
+
+    @Column(name = "outgoing_count", nullable = false)
+    private long outgoingCount;
+
+    @Column(name = "total_received", nullable = false,
+            precision = MoneyConstants.PRECISION, scale = MoneyConstants.SCALE)
+    private BigDecimal totalReceived;
+
+    @Column(name = "total_sent", nullable = false, precision = MoneyConstants.PRECISION, scale = MoneyConstants.SCALE)
+    private BigDecimal totalSent;
+
+    @Transient
+    private boolean newEntity;
+
+    public AccountStatistics(UUID accountId) {
+        this.accountId = accountId;
+        this.totalReceived = BigDecimal.ZERO.setScale(MoneyConstants.SCALE, RoundingMode.HALF_UP);
+        this.totalSent = BigDecimal.ZERO.setScale(MoneyConstants.SCALE, RoundingMode.HALF_UP);
+        this.newEntity = true;
+    }
+
+    @Override
+    public UUID getId() {
+        return accountId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        newEntity = false;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.wallet.account;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface AccountStatisticsRepository extends JpaRepository<AccountStatistics, UUID> {
+
+}
@@ -0,0 +1,71 @@
+package com.example.wallet.account;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Инкрементально поддерживает статистику счетов, чтобы /accounts/{id}/stats не агрегировал историю переводов.
+ * Все методы вызываются под блокировками строк соответствующих счетов, поэтому строки статистики
+ * не меняются параллельно.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountStatisticsService {
+
+    private final AccountStatisticsRepository statisticsRepo;
+
+    /**
+     * Учитывает исходящий перевод отправителя.
+     *
+     * @param amount сумма перевода без комиссии
+     * @param fee    комиссия, списанная с отправителя
+     */
+    public void recordOutgoing(UUID fromId, BigDecimal amount, BigDecimal fee) {
+        AccountStatistics from = findOrNew(fromId);
+        from.setOutgoingCount(from.getOutgoingCount() + 1);
+        from.setTotalSent(from.getTotalSent().add(amount).add(fee));
+        saveIfNew(from);
+    }
+
+    /**
+     * Учитывает входящий перевод получателя. Для горячих счетов вызывается не здесь,
+     * а копится в слотах, см. {@link AccountBalanceService#creditTransfer}.
+     */
+    public void recordIncoming(UUID toId, BigDecimal amount) {
+        AccountStatistics to = findOrNew(toId);
+        to.setIncomingCount(to.getIncomingCount() + 1);
+        to.setTotalReceived(to.getTotalReceived().add(amount));
+        saveIfNew(to);
+    }
+
+    /**
+     * Вычитает отменённый перевод из статистики. Вызывается под блокировками строк обоих счетов,
+     * в том числе горячего получателя. Входящие переводы горячего счёта копятся в слотах, а строки
+     * статистики у него может не быть, поэтому строка создаётся и хранит отрицательное смещение
+     * относительно сумм по слотам.
+     */
+    public void revertTransfer(UUID fromId, UUID toId, BigDecimal amount, BigDecimal fee) {
+        AccountStatistics from = findOrNew(fromId);
+        from.setOutgoingCount(from.getOutgoingCount() - 1);
+        from.setTotalSent(from.getTotalSent().subtract(amount).subtract(fee));
+        saveIfNew(from);
+
+        AccountStatistics to = findOrNew(toId);
+        to.setIncomingCount(to.getIncomingCount() - 1);
+        to.setTotalReceived(to.getTotalReceived().subtract(amount));
+        saveIfNew(to);
+    }
+
+    private AccountStatistics findOrNew(UUID accountId) {
+        return statisticsRepo.findById(accountId).orElseGet(() -> new AccountStatistics(accountId));
+    }
+
+    private void saveIfNew(AccountStatistics statistics) {
+        if (statistics.isNew()) {
+            statisticsRepo.save(statistics);
+        }
+    }
+}
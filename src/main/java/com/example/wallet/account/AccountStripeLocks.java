@@ -0,0 +1,120 @@
+package com.example.wallet.account;
+
+import com.example.wallet.configuration.AccountLockProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Блокировки счетов в памяти процесса, разбитые на полосы по хешу id.
+ * <p>
+ * Берутся в начале транзакции, до первого SQL-запроса, и отпускаются после её завершения.
+ * Запросы к одним и тем же счетам ждут друг друга здесь, а не в {@code SELECT ... FOR UPDATE}
+ * с занятым соединением из пула. Блокировки строк в БД по-прежнему берутся и защищают от других узлов.
+ * <p>
+ * Полосы берутся по возрастанию номера, поэтому взаимных блокировок между ними нет.
+ * Разные счета могут попасть в одну полосу: это лишь лишнее ожидание, а не ошибка.
+ */
+@Component
+public class AccountStripeLocks {
+
+    private final AccountLockProperties properties;
+
+    private final ReentrantLock[] stripes;
+
+    private final Timer acquiredTimer;
+
+    private final Timer timedOutTimer;
+
+    public AccountStripeLocks(AccountLockProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        int count = 1;
+        while (count < properties.getStripes()) {
+            count <<= 1;
+        }
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.acquiredTimer = waitTimer(meterRegistry, "acquired");
+        this.timedOutTimer = waitTimer(meterRegistry, "timeout");
+    }
+
+    public boolean isEnabled() {
+        return properties.isStriped();
+    }
+
+    /**
+     * Блокирует полосы счетов до конца текущей транзакции. Ничего не делает, если полосы выключены.
+     *
+     * @param accountIds идентификаторы счетов (дубликаты допускаются)
+     * @throws ResponseStatusException 503, если полосы не удалось получить за отведённое время
+     */
+    public void lock(Collection<UUID> accountIds) {
+        if (!properties.isStriped()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Stripe locks must be acquired inside a transaction");
+        }
+
+        int[] indexes = accountIds.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+        List<ReentrantLock> acquired = new ArrayList<>(indexes.length);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(properties.getAcquireTimeoutMs());
+        try {
+            for (int index : indexes) {
+                ReentrantLock stripe = stripes[index];
+                if (!stripe.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+                acquired.add(stripe);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (acquired.size() < indexes.length) {
+            timedOutTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            unlock(acquired);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Account is busy, please try again later");
+        }
+        acquiredTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                unlock(acquired);
+            }
+        });
+    }
+
+    private int stripeOf(UUID accountId) {
+        int h = accountId.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    private static void unlock(List<ReentrantLock> acquired) {
+        for (int i = acquired.size() - 1; i >= 0; i--) {
+            acquired.get(i).unlock();
+        }
+    }
+
+    private static Timer waitTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("wallet.account.stripe.wait")
+                .description("Time spent waiting for in-process account stripe locks")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
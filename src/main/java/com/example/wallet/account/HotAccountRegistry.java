@@ -0,0 +1,61 @@
+package com.example.wallet.account;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Локальная копия списка горячих счетов.
+ * Нужна, чтобы решить, блокировать ли строку счёта-получателя, ещё до обращения к этой строке.
+ * Число слотов у счёта только растёт, поэтому устаревшая копия безопасна: счёт, о котором узел
+ * ещё не знает, просто блокируется целиком, как обычный.
+ */
+@Component
+@RequiredArgsConstructor
+public class HotAccountRegistry {
+
+    private final AccountRepository accountRepo;
+
+    private volatile Set<UUID> hotAccounts = Set.of();
+
+    public boolean isHot(UUID accountId) {
+        return hotAccounts.contains(accountId);
+    }
+
+    /**
+     * Регистрирует счёт как горячий после коммита текущей транзакции: до коммита другие транзакции
+     * не видят новых слотов. Вне транзакции регистрирует сразу.
+     */
+    public void registerAfterCommit(UUID accountId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            register(accountId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                register(accountId);
+            }
+        });
+    }
+
+    private synchronized void register(UUID accountId) {
+        Set<UUID> updated = new HashSet<>(hotAccounts);
+        updated.add(accountId);
+        hotAccounts = Set.copyOf(updated);
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.hot-accounts.refresh-interval-ms}")
+    public void refresh() {
+        Set<UUID> loaded = Set.copyOf(accountRepo.findHotAccountIds());
+        synchronized (this) {
+            hotAccounts = loaded;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.wallet.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class AccountPage {
+
+    private List<AccountResponse> items;
+
+    /**
+     * Передаётся в {@code cursor} за следующей страницей; {@code null} на последней странице.
+     */
+    private String nextCursor;
+}
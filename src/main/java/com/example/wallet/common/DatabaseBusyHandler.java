@@ -0,0 +1,44 @@
+package com.example.wallet.common;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Отвечает 503, если за {@code spring.datasource.hikari.connection-timeout} не нашлось свободного соединения.
+ * <p>
+ * Параллельность запросов ограничивает пул соединений, а не число потоков Tomcat (с виртуальными потоками
+ * их не ограничивает ничего). Лишние запросы ждут соединение и при перегрузке получают 503, а не 500.
+ * Остальные ошибки получения соединения (БД недоступна, неверные учётные данные) остаются ошибками сервера.
+ */
+@Slf4j
+@RestControllerAdvice
+public class DatabaseBusyHandler {
+
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public void handleNoConnection(Exception e, HttpServletResponse response) throws Exception {
+        if (!isPoolTimeout(e)) {
+            throw e;
+        }
+        log.warn("No database connection available: {}", e.getMessage());
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service is busy, please try again later");
+    }
+
+    /**
+     * Hikari сообщает о таймауте ожидания соединения через {@link SQLTransientConnectionException}.
+     */
+    private static boolean isPoolTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.wallet.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "wallet.account-cache")
+public class AccountCacheProperties {
+
+    /**
+     * Сколько счетов держать в кэше неизменяемых полей; столько же держится соответствий имени и id.
+     */
+    private long metadataMaxSize;
+
+    /**
+     * Сколько хранить соответствие имени владельца и id. Ограничивает устаревание, если счёт удалён
+     * и создан заново на другом узле.
+     */
+    private long nameTtlMs;
+
+    /**
+     * Сколько счетов с балансом держать в кэше чтения, см. {@link com.example.wallet.account.AccountReadCache}.
+     */
+    private long readMaxSize;
+
+    /**
+     * Сколько хранить запись кэша чтения. Ограничивает устаревание из-за изменений на других узлах.
+     */
+    private long readTtlMs;
+}
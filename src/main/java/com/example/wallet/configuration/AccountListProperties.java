@@ -0,0 +1,26 @@
+package com.example.wallet.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "wallet.account-list")
+public class AccountListProperties {
+
+    /**
+     * Размер страницы {@code GET /accounts}, если клиент не передал {@code limit}.
+     */
+    private int defaultPageSize;
+
+    /**
+     * Больший {@code limit} уменьшается до этого значения.
+     */
+    private int maxPageSize;
+
+    /**
+     * Сколько строк драйвер читает из курсора за раз при потоковой выгрузке.
+     */
+    private int streamFetchSize;
+}
@@ -0,0 +1,33 @@
+package com.example.wallet.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "wallet.account-locks")
+public class AccountLockProperties {
+
+    /**
+     * Ставить ли счета в очередь в памяти процесса до блокировки строк в БД.
+     */
+    private boolean striped;
+
+    /**
+     * Число полос; округляется вверх до степени двойки.
+     */
+    private int stripes;
+
+    private long acquireTimeoutMs;
+
+    /**
+     * Доля блокировок строк, которые учитывает {@link com.example.wallet.account.AccountContentionProfiler}.
+     */
+    private double contentionSampleRate;
+
+    /**
+     * Сколько счетов отслеживает профилировщик; самые спорные из них точно попадают в отчёт.
+     */
+    private int contentionTopK;
+}
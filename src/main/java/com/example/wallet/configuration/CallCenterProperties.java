@@ -0,0 +1,36 @@
+package com.example.wallet.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "wallet.call-center")
+public class CallCenterProperties {
+
+    /**
+     * Число операторов, одновременно разбирающих очередь; не зависит от числа партиций {@code fraud-alerts}.
+     */
+    private int operators;
+
+    /**
+     * Длительность звонка (имитация).
+     */
+    private long callDurationMs;
+
+    /**
+     * Пауза оператора, если очередь пуста.
+     */
+    private long idlePollMs;
+
+    /**
+     * Через сколько взятая, но не завершённая задача возвращается в очередь (оператор упал посреди звонка).
+     */
+    private long claimTimeoutMs;
+
+    /**
+     * Сколько хранить завершённые задачи перед удалением.
+     */
+    private long retentionHours;
+}
@@ -7,13 +7,16 @@ import java.time.Clock;
 
 /**
  * The clock configurator.
+ * <p>
+ * Часы в UTC, а не в поясе сервера: по ним считаются дни дневного лимита, и миграция V15 раскладывает
+ * переводы по тем же дням UTC.
  */
 @Configuration
 public class ClockConfiguration {
 
     @Bean
     public Clock clock() {
-        return Clock.systemDefaultZone();
+        return Clock.systemUTC();
     }
 
 }
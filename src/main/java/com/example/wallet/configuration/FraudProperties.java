@@ -20,4 +20,19 @@ public class FraudProperties {
     private int highAmountThreshold;
 
     private int midAmountThreshold;
+
+    /**
+     * Ширина корзины скользящего окна velocity.
+     */
+    private int velocityBucketSeconds;
+
+    /**
+     * Сколько счетов держать в памяти velocity-трекера.
+     */
+    private int velocityMaxAccounts;
+
+    /**
+     * Файл снимка velocity-трекера; пустое значение отключает снимки.
+     */
+    private String velocitySnapshotPath;
 }
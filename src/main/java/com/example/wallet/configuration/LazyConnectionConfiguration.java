@@ -0,0 +1,32 @@
+package com.example.wallet.configuration;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Откладывает получение соединения из пула до первого SQL-запроса транзакции.
+ * Без этого транзакция забирает соединение уже при старте, и ожидание блокировки в памяти
+ * ({@link com.example.wallet.account.AccountStripeLocks}) снова держало бы соединение.
+ */
+@Configuration
+@ConditionalOnProperty(name = "wallet.account-locks.striped", havingValue = "true")
+public class LazyConnectionConfiguration {
+
+    @Bean
+    public static BeanPostProcessor lazyConnectionDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                    return new LazyConnectionDataSourceProxy(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
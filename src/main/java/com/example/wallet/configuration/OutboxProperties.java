@@ -0,0 +1,28 @@
+package com.example.wallet.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "wallet.outbox")
+public class OutboxProperties {
+
+    /**
+     * Сколько сообщений relay забирает и отправляет за одну транзакцию.
+     */
+    private int batchSize;
+
+    /**
+     * Сколько ждать подтверждений Kafka по пачке; неподтверждённые сообщения уйдут в следующий раз.
+     * Всё это время relay держит соединение из пула, поэтому значение должно быть заметно меньше
+     * {@code spring.datasource.hikari.connection-timeout}.
+     */
+    private long sendTimeoutMs;
+
+    /**
+     * Сколько хранить отправленные сообщения перед удалением.
+     */
+    private long retentionHours;
+}
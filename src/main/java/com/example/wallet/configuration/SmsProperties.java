@@ -0,0 +1,25 @@
+package com.example.wallet.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "wallet.sms")
+public class SmsProperties {
+
+    /**
+     * Сколько SMS может отправляться одновременно; при достижении предела чтение топика приостанавливается.
+     */
+    private int maxInFlight;
+
+    private int maxAttempts;
+
+    private long retryBackoffMs;
+
+    /**
+     * Задержка ответа {@link com.example.wallet.event.FakeSmsGateway}.
+     */
+    private long gatewayLatencyMs;
+}
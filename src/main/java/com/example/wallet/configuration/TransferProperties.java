@@ -0,0 +1,41 @@
+package com.example.wallet.configuration;
+
+import com.example.wallet.transfer.TransferStrategy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "wallet.transfer")
+public class TransferProperties {
+
+    private TransferStrategy strategy;
+
+    /**
+     * Доля конфликтов на перевод за окно, после которой ADAPTIVE переходит на блокировки.
+     */
+    private double adaptiveConflictRate;
+
+    /**
+     * Минимум оптимистичных переводов в окне, чтобы по нему принимать решение.
+     */
+    private int adaptiveMinSamples;
+
+    private long adaptiveCooldownMs;
+
+    /**
+     * Размер страницы истории переводов, если клиент не передал {@code limit}.
+     */
+    private int historyDefaultPageSize;
+
+    /**
+     * Больший {@code limit} истории переводов уменьшается до этого значения.
+     */
+    private int historyMaxPageSize;
+
+    /**
+     * Сколько строк драйвер читает из курсора за раз при выгрузке выписки.
+     */
+    private int statementFetchSize;
+}
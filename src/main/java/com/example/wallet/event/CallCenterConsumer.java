@@ -1,38 +1,34 @@
 package com.example.wallet.event;
 
 import com.example.wallet.transfer.dto.FraudAnalysisResult;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.List;
 
+/**
+ * Переносит оповещения о мошенничестве в очередь {@code call_center_tasks}; звонят {@link CallCenterOperators}.
+ */
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class CallCenterConsumer {
 
+    private final CallCenterTaskRepository taskRepository;
+
+    private final Clock clock;
+
     @KafkaListener(
             topics = "fraud-alerts",
             groupId = "call-center-group",
-            concurrency = "5",
-            properties = {
-                    "max.poll.interval.ms=900000", // 15 минут
-                    "max.poll.records=1"
-            }
+            batch = "true"
     )
-    public void callClient(FraudAnalysisResult alert) {
-        String operatorName = Thread.currentThread().getName();
-        log.info(
-                "[OPERATOR {}] Calling for transfer {}. RiskLevel: {}. Message: {}.",
-                operatorName, alert.getTransferId(), alert.getRiskLevel(), alert.getMessage()
-        );
-
-        try {
-            Thread.sleep(TimeUnit.MINUTES.toMillis(10));
-            log.info("[OPERATOR {}] Call finished.", operatorName);
-        } catch (InterruptedException e) {
-            log.warn("Call interrupted!");
-            Thread.currentThread().interrupt();
-        }
+    public void enqueue(List<FraudAnalysisResult> alerts) {
+        taskRepository.insertAll(alerts, OffsetDateTime.now(clock));
+        log.info("Queued {} fraud alerts for the call center", alerts.size());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,204 @@
+package com.example.wallet.event;
+
+import com.example.wallet.configuration.CallCenterProperties;
+import com.example.wallet.event.CallCenterTaskRepository.Backlog;
+import com.example.wallet.event.CallCenterTaskRepository.CallCenterTask;
+import com.example.wallet.transfer.dto.FraudRiskLevel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Операторы колл-центра: {@code wallet.call-center.operators} потоков по очереди забирают задачи
+ * из {@code call_center_tasks} и звонят клиентам.
+ * <p>
+ * Задача, взятая оператором, который упал посреди звонка, возвращается в очередь
+ * через {@code wallet.call-center.claim-timeout-ms}, а завершённые задачи удаляются
+ * через {@code wallet.call-center.retention-hours}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "wallet.call-center.operators-enabled", havingValue = "true", matchIfMissing = true)
+public class CallCenterOperators {
+
+    private final CallCenterTaskRepository taskRepository;
+
+    private final CallCenterProperties properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Clock clock;
+
+    private final ExecutorService operators;
+
+    private final Map<FraudRiskLevel, Timer> waitTimers = new EnumMap<>(FraudRiskLevel.class);
+
+    private final AtomicInteger busy = new AtomicInteger();
+
+    private final AtomicLong depth = new AtomicLong();
+
+    private final AtomicReference<OffsetDateTime> oldestPending = new AtomicReference<>();
+
+    private volatile boolean running;
+
+    public CallCenterOperators(CallCenterTaskRepository taskRepository,
+                               CallCenterProperties properties,
+                               TransactionTemplate transactionTemplate,
+                               Clock clock,
+                               MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.operators = Executors.newFixedThreadPool(properties.getOperators(), new CustomizableThreadFactory("operator-"));
+        for (FraudRiskLevel level : FraudRiskLevel.values()) {
+            waitTimers.put(level, Timer.builder("wallet.call-center.wait")
+                    .description("Time a fraud alert waited in the queue before an operator took it")
+                    .tag("risk", level.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("wallet.call-center.queue.depth", depth, AtomicLong::get)
+                .description("Fraud alerts waiting for an operator")
+                .register(meterRegistry);
+        Gauge.builder("wallet.call-center.queue.oldest-wait", this, CallCenterOperators::oldestWaitSeconds)
+                .description("Age of the oldest fraud alert waiting for an operator")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("wallet.call-center.operators.busy", busy, AtomicInteger::get)
+                .description("Operators currently on a call")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        for (int i = 0; i < properties.getOperators(); i++) {
+            operators.execute(this::work);
+        }
+        log.info("Started {} call-center operators", properties.getOperators());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        operators.shutdownNow();
+    }
+
+    /**
+     * Возвращает в очередь зависшие задачи и обновляет метрики очереди.
+     */
+    @Scheduled(fixedDelayString = "${wallet.call-center.maintenance-interval-ms}")
+    public void maintain() {
+        OffsetDateTime claimedBefore = OffsetDateTime.now(clock).minus(Duration.ofMillis(properties.getClaimTimeoutMs()));
+        int requeued = taskRepository.requeueStale(claimedBefore);
+        if (requeued > 0) {
+            log.warn("Returned {} unfinished call-center tasks to the queue", requeued);
+        }
+
+        Backlog backlog = taskRepository.findBacklog();
+        depth.set(backlog.depth());
+        oldestPending.set(backlog.oldest());
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.call-center.cleanup-interval-ms}")
+    public void deleteDone() {
+        OffsetDateTime cutoff = OffsetDateTime.now(clock).minusHours(properties.getRetentionHours());
+        int deleted = taskRepository.deleteDoneBefore(cutoff);
+        if (deleted > 0) {
+            log.info("Deleted {} completed call-center tasks older than {}", deleted, cutoff);
+        }
+    }
+
+    /**
+     * Забирает и выполняет одну задачу.
+     *
+     * @return {@code false}, если очередь пуста
+     */
+    boolean handleNext(String operator) {
+        Optional<CallCenterTask> claimed = transactionTemplate.execute(
+                status -> taskRepository.claimNext(operator, OffsetDateTime.now(clock))
+        );
+        if (claimed == null || claimed.isEmpty()) {
+            return false;
+        }
+
+        CallCenterTask task = claimed.get();
+        waitTimers.get(task.riskLevel()).record(Duration.between(task.createdAt(), OffsetDateTime.now(clock)));
+        busy.incrementAndGet();
+        try {
+            call(operator, task);
+        } finally {
+            busy.decrementAndGet();
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            log.warn("[OPERATOR {}] Call interrupted, transfer {} stays claimed until the claim timeout",
+                    operator, task.transferId());
+            return true;
+        }
+        taskRepository.complete(task.id(), OffsetDateTime.now(clock));
+        return true;
+    }
+
+    private void work() {
+        String operator = Thread.currentThread().getName();
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                if (!handleNext(operator)) {
+                    Thread.sleep(properties.getIdlePollMs());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("[OPERATOR {}] Failed to handle call-center task", operator, e);
+                sleepQuietly(properties.getIdlePollMs());
+            }
+        }
+    }
+
+    private void call(String operator, CallCenterTask task) {
+        log.info(
+                "[OPERATOR {}] Calling for transfer {}. RiskLevel: {}. Message: {}.",
+                operator, task.transferId(), task.riskLevel(), task.message()
+        );
+        sleepQuietly(properties.getCallDurationMs());
+        log.info("[OPERATOR {}] Call finished.", operator);
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double oldestWaitSeconds() {
+        OffsetDateTime oldest = oldestPending.get();
+        if (oldest == null) {
+            return 0;
+        }
+        return Duration.between(oldest.toInstant(), clock.instant()).toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.wallet.event;
+
+import com.example.wallet.transfer.dto.FraudAnalysisResult;
+import com.example.wallet.transfer.dto.FraudRiskLevel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Таблица {@code call_center_tasks}: очередь звонков по оповещениям о мошенничестве.
+ * Задачи выдаются по приоритету (HIGH раньше MEDIUM), внутри приоритета — самые старые первыми.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CallCenterTaskRepository {
+
+    static final String PENDING = "PENDING";
+
+    static final String IN_PROGRESS = "IN_PROGRESS";
+
+    static final String DONE = "DONE";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Добавляет задачи; оповещения по переводам, для которых задача уже есть, пропускаются,
+     * поэтому повторная доставка из Kafka не создаёт дублей.
+     */
+    public void insertAll(List<FraudAnalysisResult> alerts, OffsetDateTime createdAt) {
+        SqlParameterSource[] params = alerts.stream()
+                .map(alert -> new MapSqlParameterSource("transferId", alert.getTransferId())
+                        .addValue("riskLevel", alert.getRiskLevel().name())
+                        .addValue("priority", priority(alert.getRiskLevel()))
+                        .addValue("message", alert.getMessage())
+                        .addValue("status", PENDING)
+                        .addValue("createdAt", createdAt))
+                .toArray(SqlParameterSource[]::new);
+        jdbc.batchUpdate(
+                "INSERT INTO call_center_tasks (transfer_id, risk_level, priority, message, status, created_at) "
+                        + "SELECT :transferId, :riskLevel, :priority, :message, :status, :createdAt "
+                        + "WHERE NOT EXISTS (SELECT 1 FROM call_center_tasks WHERE transfer_id = :transferId)",
+                params
+        );
+    }
+
+    /**
+     * Забирает следующую задачу для оператора. Вызывать в транзакции: строка блокируется через
+     * {@code FOR UPDATE SKIP LOCKED}, чтобы операторы не получили одну и ту же задачу.
+     */
+    public Optional<CallCenterTask> claimNext(String operator, OffsetDateTime now) {
+        Optional<CallCenterTask> next = jdbc.query(
+                "SELECT id, transfer_id, risk_level, message, created_at FROM call_center_tasks "
+                        + "WHERE status = :status ORDER BY priority, created_at, id LIMIT 1 FOR UPDATE SKIP LOCKED",
+                new MapSqlParameterSource("status", PENDING),
+                (rs, rowNum) -> new CallCenterTask(
+                        rs.getLong("id"),
+                        rs.getObject("transfer_id", UUID.class),
+                        FraudRiskLevel.valueOf(rs.getString("risk_level")),
+                        rs.getString("message"),
+                        rs.getObject("created_at", OffsetDateTime.class)
+                )
+        ).stream().findFirst();
+
+        next.ifPresent(task -> jdbc.update(
+                "UPDATE call_center_tasks SET status = :status, claimed_at = :now, claimed_by = :operator WHERE id = :id",
+                new MapSqlParameterSource("id", task.id())
+                        .addValue("status", IN_PROGRESS)
+                        .addValue("now", now)
+                        .addValue("operator", operator)
+        ));
+        return next;
+    }
+
+    public void complete(long id, OffsetDateTime now) {
+        jdbc.update(
+                "UPDATE call_center_tasks SET status = :status, completed_at = :now WHERE id = :id",
+                new MapSqlParameterSource("id", id).addValue("status", DONE).addValue("now", now)
+        );
+    }
+
+    /**
+     * Возвращает в очередь задачи, взятые раньше {@code claimedBefore} и так и не завершённые.
+     */
+    public int requeueStale(OffsetDateTime claimedBefore) {
+        return jdbc.update(
+                "UPDATE call_center_tasks SET status = :pending, claimed_at = NULL, claimed_by = NULL "
+                        + "WHERE status = :inProgress AND claimed_at < :before",
+                new MapSqlParameterSource("pending", PENDING)
+                        .addValue("inProgress", IN_PROGRESS)
+                        .addValue("before", claimedBefore)
+        );
+    }
+
+    /**
+     * Удаляет задачи, завершённые раньше {@code cutoff}: иначе таблица и индекс очереди растут без предела.
+     */
+    public int deleteDoneBefore(OffsetDateTime cutoff) {
+        return jdbc.update(
+                "DELETE FROM call_center_tasks WHERE status = :status AND completed_at < :cutoff",
+                new MapSqlParameterSource("status", DONE).addValue("cutoff", cutoff)
+        );
+    }
+
+    /**
+     * Возвращает число задач в очереди и время создания самой старой из них.
+     */
+    public Backlog findBacklog() {
+        return jdbc.queryForObject(
+                "SELECT COUNT(*) AS depth, MIN(created_at) AS oldest FROM call_center_tasks WHERE status = :status",
+                new MapSqlParameterSource("status", PENDING),
+                (rs, rowNum) -> new Backlog(rs.getLong("depth"), rs.getObject("oldest", OffsetDateTime.class))
+        );
+    }
+
+    static int priority(FraudRiskLevel riskLevel) {
+        return riskLevel == FraudRiskLevel.HIGH ? 0 : 1;
+    }
+
+    public record CallCenterTask(long id, UUID transferId, FraudRiskLevel riskLevel, String message,
+                                 OffsetDateTime createdAt) {
+
+    }
+
+    /**
+     * @param oldest {@code null}, если очередь пуста
+     */
+    public record Backlog(long depth, OffsetDateTime oldest) {
+
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.wallet.event;
+
+import com.example.wallet.configuration.SmsProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Заглушка шлюза, которая только выжидает {@code wallet.sms.gateway-latency-ms}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FakeSmsGateway implements SmsGateway {
+
+    private final SmsProperties properties;
+
+    @Override
+    public void send(TransferCompletedEvent event) {
+        try {
+            Thread.sleep(properties.getGatewayLatencyMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("SMS sending interrupted", e);
+        }
+        log.info("SMS sent for transfer {}", event.getTransferId());
+    }
+}
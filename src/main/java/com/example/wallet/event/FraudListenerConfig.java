@@ -0,0 +1,44 @@
+package com.example.wallet.event;
+
+import com.example.wallet.transfer.fraud.VelocityTracker;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Configuration
+public class FraudListenerConfig {
+
+    /**
+     * Фабрика для листенера антифрода: после каждой перебалансировки сообщает {@link VelocityTracker}
+     * полное назначение партиций, чтобы счётчики перешедших к узлу счетов не считались полными.
+     * Трекер один на узел, поэтому листенер работает с одним консьюмером (concurrency по умолчанию).
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> fraudListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            VelocityTracker velocityTracker
+    ) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.getContainerProperties().setConsumerRebalanceListener(new ConsumerAwareRebalanceListener() {
+            @Override
+            public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                Set<Integer> assigned = consumer.assignment().stream()
+                        .map(TopicPartition::partition)
+                        .collect(Collectors.toSet());
+                velocityTracker.assignPartitions(assigned);
+            }
+        });
+        return factory;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.wallet.event;
+
+import com.example.wallet.configuration.OutboxProperties;
+import com.example.wallet.event.OutboxRepository.Backlog;
+import com.example.wallet.event.OutboxRepository.OutboxMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Переносит сообщения из {@code outbox} в Kafka.
+ * <p>
+ * За одну транзакцию забирает пачку строк через {@code FOR UPDATE SKIP LOCKED}, отправляет все сообщения
+ * не дожидаясь ответа на каждое, затем ждёт подтверждений всей пачки и одним UPDATE помечает
+ * подтверждённые как отправленные. Неподтверждённые остаются в очереди до следующего прохода.
+ * Доставка «хотя бы один раз»: если транзакция не зафиксируется после отправки, сообщение уйдёт повторно.
+ * <p>
+ * Пока relay ждёт подтверждений, он держит транзакцию, блокировки строк пачки и соединение из пула,
+ * поэтому {@code wallet.outbox.send-timeout-ms} должен быть заметно меньше {@code connection-timeout} пула.
+ * <p>
+ * Порядок сообщений одного ключа сохраняется только при одном relay: с несколькими узлами {@code SKIP LOCKED}
+ * позволяет более поздней пачке уйти раньше заблокированной более ранней. Неподтверждённое сообщение
+ * тоже уходит позже следующих за ним.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "wallet.outbox.relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxRepository outboxRepository;
+
+    private final KafkaTemplate<String, TransferCompletedEvent> kafkaTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final OutboxProperties properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Clock clock;
+
+    private final Counter sentCounter;
+
+    private final Counter failedCounter;
+
+    private final AtomicLong depth = new AtomicLong();
+
+    private final AtomicReference<OffsetDateTime> oldestUnsent = new AtomicReference<>();
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       KafkaTemplate<String, TransferCompletedEvent> kafkaTemplate,
+                       ObjectMapper objectMapper,
+                       OutboxProperties properties,
+                       TransactionTemplate transactionTemplate,
+                       Clock clock,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.sentCounter = Counter.builder("wallet.outbox.sent")
+                .description("Outbox messages acknowledged by Kafka")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("wallet.outbox.send.failures")
+                .description("Outbox messages left for the next relay run after a failed or timed out send")
+                .register(meterRegistry);
+        Gauge.builder("wallet.outbox.depth", depth, AtomicLong::get)
+                .description("Outbox messages not yet sent to Kafka")
+                .register(meterRegistry);
+        Gauge.builder("wallet.outbox.lag", this, OutboxRelay::lagSeconds)
+                .description("Age of the oldest outbox message not yet sent to Kafka")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Отправляет пачки, пока они приходят полными и отправляются без ошибок, затем обновляет метрики очереди.
+     */
+    @Scheduled(fixedDelayString = "${wallet.outbox.poll-interval-ms}")
+    public void relay() {
+        Integer sent;
+        do {
+            sent = transactionTemplate.execute(status -> relayBatch());
+        } while (sent != null && sent == properties.getBatchSize());
+
+        Backlog backlog = outboxRepository.findBacklog();
+        depth.set(backlog.depth());
+        oldestUnsent.set(backlog.oldest());
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.outbox.cleanup-interval-ms}")
+    public void deleteSent() {
+        OffsetDateTime cutoff = OffsetDateTime.now(clock).minusHours(properties.getRetentionHours());
+        int deleted = outboxRepository.deleteSentBefore(cutoff);
+        if (deleted > 0) {
+            log.info("Deleted {} sent outbox messages older than {}", deleted, cutoff);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxMessage> batch = outboxRepository.lockUnsent(properties.getBatchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            sends.add(send(message));
+        }
+        awaitAll(sends);
+
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        List<Long> failedIds = new ArrayList<>();
+        Throwable firstError = null;
+        for (int i = 0; i < batch.size(); i++) {
+            CompletableFuture<?> send = sends.get(i);
+            if (send.isDone() && !send.isCompletedExceptionally()) {
+                sentIds.add(batch.get(i).id());
+            } else {
+                failedIds.add(batch.get(i).id());
+                if (firstError == null) {
+                    firstError = send.isDone() ? send.handle((result, e) -> e).join() : new TimeoutException();
+                }
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            outboxRepository.markSent(sentIds, OffsetDateTime.now(clock));
+            sentCounter.increment(sentIds.size());
+        }
+        if (!failedIds.isEmpty()) {
+            outboxRepository.markFailed(failedIds);
+            failedCounter.increment(failedIds.size());
+            log.warn("{} of {} outbox messages were not acknowledged by Kafka, will retry: {}",
+                    failedIds.size(), batch.size(), String.valueOf(firstError));
+        }
+        return sentIds.size();
+    }
+
+    private CompletableFuture<?> send(OutboxMessage message) {
+        try {
+            TransferCompletedEvent event = objectMapper.readValue(message.payload(), TransferCompletedEvent.class);
+            return kafkaTemplate.send(message.topic(), message.key(), event);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void awaitAll(List<CompletableFuture<?>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(properties.getSendTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // исход каждой отправки разбирается отдельно
+        }
+    }
+
+    private double lagSeconds() {
+        OffsetDateTime oldest = oldestUnsent.get();
+        if (oldest == null) {
+            return 0;
+        }
+        return Duration.between(oldest.toInstant(), clock.instant()).toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.wallet.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Таблица {@code outbox}: события, записанные в одной транзакции с изменением и ещё не отправленные в Kafka.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public void insert(String topic, String key, String payload) {
+        jdbc.update(
+                "INSERT INTO outbox (topic, message_key, payload) VALUES (:topic, :key, :payload)",
+                new MapSqlParameterSource("topic", topic).addValue("key", key).addValue("payload", payload)
+        );
+    }
+
+    /**
+     * Блокирует до {@code limit} самых старых неотправленных сообщений до конца транзакции.
+     * Строки, уже заблокированные другим узлом, пропускаются, поэтому несколько relay не мешают друг другу.
+     */
+    public List<OutboxMessage> lockUnsent(int limit) {
+        return jdbc.query(
+                "SELECT id, topic, message_key, payload, created_at FROM outbox "
+                        + "WHERE sent_at IS NULL ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+                new MapSqlParameterSource("limit", limit),
+                (rs, rowNum) -> new OutboxMessage(
+                        rs.getLong("id"),
+                        rs.getString("topic"),
+                        rs.getString("message_key"),
+                        rs.getString("payload"),
+                        rs.getObject("created_at", OffsetDateTime.class)
+                )
+        );
+    }
+
+    public void markSent(Collection<Long> ids, OffsetDateTime sentAt) {
+        jdbc.update(
+                "UPDATE outbox SET sent_at = :sentAt, attempts = attempts + 1 WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids).addValue("sentAt", sentAt)
+        );
+    }
+
+    public void markFailed(Collection<Long> ids) {
+        jdbc.update(
+                "UPDATE outbox SET attempts = attempts + 1 WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids)
+        );
+    }
+
+    /**
+     * Возвращает число неотправленных сообщений и время создания самого старого из них.
+     */
+    public Backlog findBacklog() {
+        return jdbc.queryForObject(
+                "SELECT COUNT(*) AS depth, MIN(created_at) AS oldest FROM outbox WHERE sent_at IS NULL",
+                new MapSqlParameterSource(),
+                (rs, rowNum) -> new Backlog(rs.getLong("depth"), rs.getObject("oldest", OffsetDateTime.class))
+        );
+    }
+
+    public int deleteSentBefore(OffsetDateTime cutoff) {
+        return jdbc.update(
+                "DELETE FROM outbox WHERE sent_at < :cutoff",
+                new MapSqlParameterSource("cutoff", cutoff)
+        );
+    }
+
+    public record OutboxMessage(long id, String topic, String key, String payload, OffsetDateTime createdAt) {
+
+    }
+
+    /**
+     * @param oldest {@code null}, если очередь пуста
+     */
+    public record Backlog(long depth, OffsetDateTime oldest) {
+
+    }
+}
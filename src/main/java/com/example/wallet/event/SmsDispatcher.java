@@ -0,0 +1,130 @@
+package com.example.wallet.event;
+
+import com.example.wallet.configuration.SmsProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Отправляет SMS вне потока чтения Kafka.
+ * <p>
+ * Листенер только передаёт событие сюда и сразу возвращается к чтению. Отправки идут параллельно,
+ * не больше {@code wallet.sms.max-in-flight}; при достижении предела контейнер листенера ставится на паузу
+ * и снимается с неё, когда отправки освобождаются. Уже прочитанные до паузы записи всё равно принимаются,
+ * поэтому одновременно может отправляться до предела плюс {@code max.poll.records}.
+ * <p>
+ * Офсет подтверждается после отправки, в том числе неудачной после всех попыток (она логируется и
+ * считается в метрике). Контейнер коммитит подтверждённые офсеты по порядку, не перескакивая неподтверждённые.
+ */
+@Slf4j
+@Component
+public class SmsDispatcher {
+
+    static final String LISTENER_ID = "sms-notifications";
+
+    private final SmsGateway gateway;
+
+    private final SmsProperties properties;
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+
+    private final RetryTemplate retryTemplate;
+
+    private final ExecutorService executor;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Timer deliveredTimer;
+
+    private final Timer failedTimer;
+
+    public SmsDispatcher(SmsGateway gateway, SmsProperties properties,
+                         KafkaListenerEndpointRegistry listenerRegistry, MeterRegistry meterRegistry) {
+        this.gateway = gateway;
+        this.properties = properties;
+        this.listenerRegistry = listenerRegistry;
+        this.retryTemplate = RetryTemplate.builder()
+                .maxAttempts(properties.getMaxAttempts())
+                .fixedBackoff(Math.max(1, properties.getRetryBackoffMs()))
+                .build();
+        this.executor = Executors.newFixedThreadPool(properties.getMaxInFlight(), new CustomizableThreadFactory("sms-"));
+        this.deliveredTimer = Timer.builder("wallet.sms.delivery")
+                .description("Time to deliver a transfer SMS, including retries")
+                .tag("outcome", "delivered")
+                .register(meterRegistry);
+        this.failedTimer = Timer.builder("wallet.sms.delivery")
+                .description("Time to deliver a transfer SMS, including retries")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        Gauge.builder("wallet.sms.in-flight", inFlight, AtomicInteger::get)
+                .description("Transfer SMS being sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ставит отправку в работу и возвращается сразу; {@code ack} подтверждается после отправки.
+     */
+    public void dispatch(TransferCompletedEvent event, Acknowledgment ack) {
+        inFlight.incrementAndGet();
+        updatePause();
+        executor.execute(() -> {
+            try {
+                deliver(event);
+            } finally {
+                ack.acknowledge();
+                inFlight.decrementAndGet();
+                updatePause();
+            }
+        });
+    }
+
+    private void deliver(TransferCompletedEvent event) {
+        long start = System.nanoTime();
+        try {
+            retryTemplate.execute(context -> {
+                gateway.send(event);
+                return null;
+            });
+            deliveredTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            failedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.error("SMS for transfer {} not sent after {} attempts: {}",
+                    event.getTransferId(), properties.getMaxAttempts(), e.getMessage());
+        }
+    }
+
+    private synchronized void updatePause() {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(LISTENER_ID);
+        if (container == null) {
+            return;
+        }
+        boolean full = inFlight.get() >= properties.getMaxInFlight();
+        if (full && !container.isPauseRequested()) {
+            container.pause();
+        } else if (!full && container.isPauseRequested()) {
+            container.resume();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("{} SMS still in flight at shutdown, they will be redelivered", inFlight.get());
+            executor.shutdownNow();
+        }
+    }
+}
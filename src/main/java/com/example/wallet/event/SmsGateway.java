@@ -0,0 +1,12 @@
+package com.example.wallet.event;
+
+/**
+ * Шлюз отправки SMS. Вызов блокирующий: возвращает управление после ответа шлюза.
+ */
+public interface SmsGateway {
+
+    /**
+     * @throws RuntimeException если шлюз не принял сообщение
+     */
+    void send(TransferCompletedEvent event);
+}
@@ -1,17 +1,38 @@
 package com.example.wallet.event;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
+/**
+ * Событие о завершённом переводе.
+ * <p>
+ * Схема только расширяется: новые поля добавляются, старые не меняются. Консьюмеры старой схемы
+ * игнорируют незнакомые поля, а у событий старой схемы новые поля остаются {@code null}.
+ */
 @Data
+@Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class TransferCompletedEvent {
 
+    /**
+     * Версия, начиная с которой заполнены {@link #currency}, {@link #fee}, {@link #createdAt}
+     * и {@link #senderCreatedAt}.
+     */
+    public static final int ENRICHED_SCHEMA_VERSION = 2;
+
+    /**
+     * Версия схемы; в событиях исходной схемы поля нет, и здесь 0.
+     */
+    private int schemaVersion;
+
     private UUID transferId;
 
     private UUID fromAccountId;
@@ -19,4 +40,23 @@ public class TransferCompletedEvent {
     private UUID toAccountId;
 
     private BigDecimal amount;
-}
\ No newline at end of file
+
+    private String currency;
+
+    private BigDecimal fee;
+
+    /**
+     * Время перевода.
+     */
+    private OffsetDateTime createdAt;
+
+    /**
+     * Время создания счёта отправителя.
+     */
+    private OffsetDateTime senderCreatedAt;
+
+    @JsonIgnore
+    public boolean isEnriched() {
+        return schemaVersion >= ENRICHED_SCHEMA_VERSION;
+    }
+}
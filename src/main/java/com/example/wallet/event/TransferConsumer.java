@@ -1,5 +1,6 @@
 package com.example.wallet.event;
 
+import com.example.wallet.transfer.FraudAnalysisService;
 import com.example.wallet.transfer.TransferService;
 import com.example.wallet.transfer.TransferStatus;
 import com.example.wallet.transfer.dto.FraudAnalysisResult;
@@ -8,8 +9,15 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 @Component
 @Slf4j
 @AllArgsConstructor
@@ -17,30 +25,54 @@ public class TransferConsumer {
 
     private final TransferService transferService;
 
+    private final FraudAnalysisService fraudAnalysisService;
+
     private final KafkaTemplate<String, FraudAnalysisResult> kafkaTemplate;
 
+    private final SmsDispatcher smsDispatcher;
+
     //TODO реализовать идемпотентность через БД
-    @KafkaListener(topics = "transfer-notifications", groupId = "wallet-sms-group")
-    public void sendSMS(TransferCompletedEvent event) {
+
+    /**
+     * Только передаёт событие в {@link SmsDispatcher} и не ждёт отправки, офсет подтверждается после неё.
+     */
+    @KafkaListener(
+            id = SmsDispatcher.LISTENER_ID,
+            topics = "transfer-notifications",
+            groupId = "wallet-sms-group",
+            containerFactory = "smsListenerContainerFactory",
+            properties = "max.poll.records=${wallet.sms.max-in-flight}"
+    )
+    public void sendSMS(TransferCompletedEvent event, Acknowledgment ack) {
         log.info("Start processing transfer {}", event.getTransferId());
+        smsDispatcher.dispatch(event, ack);
+    }
 
-        try {
-            Thread.sleep(3000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+    /**
+     * Анализирует пачку переводов за раз: данные для правил загружаются общими запросами на всю пачку,
+     * а оповещения отправляются вместе, и пачка подтверждается только после их доставки.
+     */
+    @KafkaListener(
+            topics = "transfer-notifications",
+            groupId = "wallet-fraud-analysis-group",
+            containerFactory = "fraudListenerContainerFactory",
+            batch = "true",
+            properties = "max.poll.records=${wallet.fraud.batch-size}"
+    )
+    public void monitorFraud(List<TransferCompletedEvent> events) {
+        Map<UUID, FraudAnalysisResult> results = fraudAnalysisService.analyzeFraud(events);
 
-        log.info("SMS sent for transfer {}", event.getTransferId());
+        List<CompletableFuture<?>> alerts = new ArrayList<>();
+        results.forEach((transferId, result) -> {
+            if (result.getRiskLevel() != FraudRiskLevel.LOW) {
+                alerts.add(kafkaTemplate.send("fraud-alerts", toAlert(transferId, result)));
+            }
+        });
+        CompletableFuture.allOf(alerts.toArray(CompletableFuture[]::new)).join();
     }
 
-    @KafkaListener(topics = "transfer-notifications", groupId = "wallet-fraud-analysis-group")
-    public void monitorFraud(TransferCompletedEvent event) {
-        FraudAnalysisResult result = transferService.analyzeFraud(event);
-
-        if (result.getRiskLevel() == FraudRiskLevel.LOW) {
-            return;
-        }
-        result.setTransferId(event.getTransferId());
+    private FraudAnalysisResult toAlert(UUID transferId, FraudAnalysisResult result) {
+        result.setTransferId(transferId);
 
         if (result.getRiskLevel() == FraudRiskLevel.MEDIUM) {
             result.setMessage("WARNING: Call client required. Do not cancel yet.");
@@ -48,8 +80,8 @@ public class TransferConsumer {
 
         } else if (result.getRiskLevel() == FraudRiskLevel.HIGH) {
             try {
-                log.warn("High fraud risk detected! Cancelling transfer {}", event.getTransferId());
-                transferService.cancel(event.getTransferId());
+                log.warn("High fraud risk detected! Cancelling transfer {}", transferId);
+                transferService.cancel(transferId);
 
                 result.setMessage("CRITICAL: Transfer CANCELLED automatically. Call client.");
                 result.setTransferStatus(TransferStatus.CANCELLED);
@@ -59,7 +91,6 @@ public class TransferConsumer {
                 result.setTransferStatus(TransferStatus.COMPLETED);
             }
         }
-        kafkaTemplate.send("fraud-alerts", result);
-
+        return result;
     }
-}
\ No newline at end of file
+}
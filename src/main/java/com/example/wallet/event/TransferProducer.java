@@ -1,43 +1,37 @@
 package com.example.wallet.event;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
+/**
+ * Записывает события о переводах в {@code outbox} в той же транзакции, что и сам перевод.
+ * В Kafka их отправляет {@link OutboxRelay}, поэтому событие не теряется ни при откате, ни при падении брокера.
+ * <p>
+ * Ключ сообщения — id счёта отправителя: все переводы отправителя попадают в одну партицию и к одному
+ * консьюмеру антифрода, чей {@link com.example.wallet.transfer.fraud.VelocityTracker} видит их все.
+ * Порядок переводов отправителя в партиции совпадает с порядком коммитов только при одном relay
+ * и без повторных отправок, см. {@link OutboxRelay}; трекер учитывает переводы по их времени, и порядок ему не нужен.
+ */
 @Component
 @RequiredArgsConstructor
-@Slf4j
 public class TransferProducer {
 
-    private static final String TOPIC = "transfer-notifications";
+    static final String TOPIC = "transfer-notifications";
 
-    private final KafkaTemplate<String, TransferCompletedEvent> kafkaTemplate;
+    private final OutboxRepository outboxRepository;
 
-    @Async
-    @Retryable(
-            retryFor = Exception.class,
-            maxAttempts = 10,
-            backoff = @Backoff(delay = 1000, multiplier = 2.0, maxDelay = 60000)
-    )
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
-    public void sendTransferEvent(TransferCompletedEvent event) {
-        log.info("Sending Kafka event for transfer: {}", event.getTransferId());
-        kafkaTemplate.send(TOPIC, event.getTransferId().toString(), event).join();
-    }
+    private final ObjectMapper objectMapper;
 
-    @Recover
-    public void recover(Exception e, TransferCompletedEvent event) {
-        log.error(
-                "FATAL: Сообщение потеряно после всех попыток. TransferId: {}. Ошибка: {}",
-                event.getTransferId(), e.getMessage()
-        );
-        //TODO реализовать отправку в DLQ на БД
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void saveTransferEvent(TransferCompletedEvent event) {
+        try {
+            outboxRepository.insert(TOPIC, event.getFromAccountId().toString(), objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize event for transfer " + event.getTransferId(), e);
+        }
     }
-}
\ No newline at end of file
+}
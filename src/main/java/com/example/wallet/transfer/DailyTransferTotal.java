@@ -0,0 +1,74 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.common.MoneyConstants;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Сумма исходящих переводов счёта за день.
+ * Обновляется под блокировкой счёта-отправителя, поэтому проверка дневного лимита читает одну строку.
+ */
+@Entity
+@Table(name = "daily_transfer_totals")
+@Getter
+@Setter
+@NoArgsConstructor
+public class DailyTransferTotal implements Persistable<DailyTransferTotal.Key> {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "total", nullable = false, precision = MoneyConstants.PRECISION, scale = MoneyConstants.SCALE)
+    private BigDecimal total;
+
+    @Transient
+    private boolean newEntity;
+
+    public DailyTransferTotal(UUID accountId, LocalDate transferDate) {
+        this.id = new Key(accountId, transferDate);
+        this.total = BigDecimal.ZERO.setScale(MoneyConstants.SCALE, RoundingMode.HALF_UP);
+        this.newEntity = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        newEntity = false;
+    }
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Column(name = "account_id", nullable = false, columnDefinition = "uuid")
+        private UUID accountId;
+
+        @Column(name = "transfer_date", nullable = false)
+        private LocalDate transferDate;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.wallet.transfer;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DailyTransferTotalRepository extends JpaRepository<DailyTransferTotal, DailyTransferTotal.Key> {
+
+}
@@ -0,0 +1,153 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.account.AccountMetadata;
+import com.example.wallet.account.AccountMetadataCache;
+import com.example.wallet.configuration.FraudProperties;
+import com.example.wallet.event.TransferCompletedEvent;
+import com.example.wallet.transfer.dto.FraudAnalysisResult;
+import com.example.wallet.transfer.fraud.FraudAssessment;
+import com.example.wallet.transfer.fraud.FraudCheckContext;
+import com.example.wallet.transfer.fraud.FraudRuleCost;
+import com.example.wallet.transfer.fraud.FraudRulePipeline;
+import com.example.wallet.transfer.fraud.VelocityTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FraudAnalysisService {
+
+    private final TransferRepository transferRepo;
+
+    private final Clock clock;
+
+    private final FraudProperties fraudProperties;
+
+    private final FraudRulePipeline fraudRulePipeline;
+
+    private final VelocityTracker velocityTracker;
+
+    private final AccountMetadataCache metadataCache;
+
+    private final TransferMetrics transferMetrics;
+
+    /**
+     * Оценивает риск пачки переводов.
+     * <p>
+     * Правила работают по данным самого события. В velocity-трекер перевод записывается по времени
+     * его совершения, а не обработки, чтобы отставание консьюмера или повторное чтение топика
+     * не сгоняли старые переводы в текущее окно. Событиям старой схемы недостающие поля отправителя
+     * дополняются из {@link AccountMetadataCache}. Сначала для всех переводов проверяются дешёвые правила;
+     * число недавних переводов загружается и дорогие правила проверяются только для тех, чей уровень риска
+     * после этого ещё не определён, см. {@link FraudRulePipeline}.
+     *
+     * @return результаты по ID перевода в порядке событий; события старой схемы с удалённым отправителем
+     * пропускаются
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, FraudAnalysisResult> analyzeFraud(List<TransferCompletedEvent> events) {
+        long start = System.nanoTime();
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        Set<UUID> legacySenderIds = new HashSet<>();
+        for (TransferCompletedEvent event : events) {
+            OffsetDateTime transferredAt = event.getCreatedAt() != null ? event.getCreatedAt() : now;
+            velocityTracker.record(event.getFromAccountId(), transferredAt.toInstant());
+            if (!event.isEnriched()) {
+                legacySenderIds.add(event.getFromAccountId());
+            }
+        }
+        Map<UUID, AccountMetadata> legacySenders = legacySenderIds.isEmpty()
+                ? Map.of()
+                : metadataCache.getAll(legacySenderIds);
+
+        FraudCheckContext context = new FraudCheckContext(null, now);
+        Map<UUID, FraudAssessment> assessments = new LinkedHashMap<>();
+        Map<UUID, TransferCompletedEvent> undecided = new HashMap<>();
+        for (TransferCompletedEvent event : events) {
+            if (!event.isEnriched() && !enrichLegacyEvent(event, legacySenders.get(event.getFromAccountId()))) {
+                log.warn("Skipping fraud analysis of transfer {}: account {} not found",
+                        event.getTransferId(), event.getFromAccountId());
+                continue;
+            }
+            FraudAssessment assessment = fraudRulePipeline.start();
+            fraudRulePipeline.evaluate(FraudRuleCost.CHEAP, event, context, assessment);
+            assessments.put(event.getTransferId(), assessment);
+            if (!fraudRulePipeline.isDecided(assessment)) {
+                undecided.put(event.getTransferId(), event);
+            }
+        }
+
+        if (!undecided.isEmpty()) {
+            Set<UUID> undecidedSenders = new HashSet<>();
+            undecided.values().forEach(event -> undecidedSenders.add(event.getFromAccountId()));
+            Map<UUID, Long> recentTransfers = countRecentTransfers(undecidedSenders, now);
+
+            undecided.forEach((transferId, event) -> fraudRulePipeline.evaluate(
+                    FraudRuleCost.EXPENSIVE,
+                    event,
+                    context.withRecentTransfers(recentTransfers.getOrDefault(event.getFromAccountId(), 0L)),
+                    assessments.get(transferId)
+            ));
+        }
+
+        Map<UUID, FraudAnalysisResult> results = new LinkedHashMap<>();
+        for (TransferCompletedEvent event : events) {
+            FraudAssessment assessment = assessments.get(event.getTransferId());
+            if (assessment != null) {
+                results.put(event.getTransferId(), FraudAnalysisResult.builder()
+                        .riskLevel(fraudRulePipeline.riskLevel(assessment.getScore()))
+                        .reasons(assessment.getReasons())
+                        .suspiciousAmount(event.getAmount())
+                        .build());
+            }
+        }
+        transferMetrics.fraudAnalysed(start, results.values());
+        return results;
+    }
+
+    /**
+     * Дополняет событие старой схемы полями отправителя.
+     *
+     * @return {@code false}, если отправитель не найден
+     */
+    private static boolean enrichLegacyEvent(TransferCompletedEvent event, AccountMetadata sender) {
+        if (sender == null) {
+            return false;
+        }
+        event.setCurrency(sender.currency());
+        event.setSenderCreatedAt(sender.createdAt());
+        return true;
+    }
+
+    /**
+     * Берёт счётчики из velocity-трекера; пока трекер не наблюдал целое окно, считает одним запросом к БД.
+     */
+    private Map<UUID, Long> countRecentTransfers(Set<UUID> senderIds, OffsetDateTime now) {
+        Map<UUID, Long> recentTransfers = new HashMap<>();
+        if (velocityTracker.isWarm(now.toInstant())) {
+            for (UUID senderId : senderIds) {
+                recentTransfers.put(senderId, velocityTracker.count(senderId, now.toInstant()));
+            }
+            return recentTransfers;
+        }
+
+        OffsetDateTime velocitySince = now.minusMinutes(fraudProperties.getVelocityTimeMinutes());
+        for (TransferRepository.RecentTransferCount count : transferRepo.countRecentTransfers(senderIds, velocitySince)) {
+            recentTransfers.put(count.getAccountId(), count.getCount());
+        }
+        return recentTransfers;
+    }
+}
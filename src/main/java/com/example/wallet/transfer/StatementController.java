@@ -0,0 +1,102 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.transfer.dto.StatementLine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * {@code GET /accounts/{id}/statement?from=...&to=...&format=csv|ndjson}: выписка пишется в ответ по мере
+ * чтения из БД, см. {@link StatementService}.
+ */
+@RestController
+@RequestMapping("/accounts/{accountId}/statement")
+@RequiredArgsConstructor
+public class StatementController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private static final String CSV_HEADER =
+            "transfer_id,created_at,direction,counterparty_id,amount,fee,status,balance_change,running_total\n";
+
+    private static final int FLUSH_EVERY_LINES = 500;
+
+    private final StatementService service;
+
+    private final ObjectMapper objectMapper;
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> statement(
+            @PathVariable UUID accountId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(defaultValue = "csv") String format
+    ) {
+        if (!format.equals("csv") && !format.equals("ndjson")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Format must be csv or ndjson");
+        }
+        StatementService.Statement statement = service.statement(accountId, from, to);
+        boolean csv = format.equals("csv");
+        StreamingResponseBody body = out -> write(out, statement, csv);
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("statement-" + accountId + "." + format)
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    /**
+     * Строки копятся в буфере и сбрасываются в ответ пачками по {@link #FLUSH_EVERY_LINES}, а не по одной.
+     */
+    private void write(OutputStream out, StatementService.Statement statement, boolean csv) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (csv) {
+            writer.write(CSV_HEADER);
+        }
+        int[] pending = {0};
+        statement.forEachLine(line -> {
+            try {
+                writer.write(csv ? csvLine(line) : objectMapper.writeValueAsString(line));
+                writer.write('\n');
+                if (++pending[0] == FLUSH_EVERY_LINES) {
+                    writer.flush();
+                    pending[0] = 0;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private static String csvLine(StatementLine line) {
+        return line.transferId() + "," + line.createdAt() + "," + line.direction() + ","
+                + line.counterpartyId() + "," + line.amount().toPlainString() + ","
+                + line.fee().toPlainString() + "," + line.status() + ","
+                + line.balanceChange().toPlainString() + "," + line.runningTotal().toPlainString();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.configuration.TransferProperties;
+import com.example.wallet.transfer.dto.StatementLine;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Потоковое чтение переводов счёта для выписки.
+ * <p>
+ * Исходящие и входящие читаются по {@code idx_transfer_from_created} и {@code idx_transfer_to_created},
+ * уже упорядоченными по времени, и сливаются {@code UNION ALL ... ORDER BY}; PostgreSQL делает это
+ * через Merge Append без сортировки всего результата.
+ */
+@Repository
+public class StatementJdbcRepository {
+
+    private static final String SQL = "SELECT id, created_at, 'OUT' AS direction, to_account_id AS counterparty_id, "
+            + "amount, fee, status, CASE WHEN status = 'COMPLETED' THEN -(amount + fee) ELSE 0.00 END AS balance_change "
+            + "FROM transfers WHERE from_account_id = ? AND created_at >= ? AND created_at < ? "
+            + "UNION ALL "
+            + "SELECT id, created_at, 'IN', from_account_id, "
+            + "amount, fee, status, CASE WHEN status = 'COMPLETED' THEN amount ELSE 0.00 END "
+            + "FROM transfers WHERE to_account_id = ? AND created_at >= ? AND created_at < ? "
+            + "ORDER BY created_at, id";
+
+    private final JdbcTemplate streamingJdbc;
+
+    public StatementJdbcRepository(DataSource dataSource, TransferProperties properties) {
+        this.streamingJdbc = new JdbcTemplate(dataSource);
+        this.streamingJdbc.setFetchSize(properties.getStatementFetchSize());
+    }
+
+    /**
+     * Передаёт переводы счёта за {@code [from, to)} от старых к новым, не держа их в памяти.
+     * PostgreSQL читает курсором по {@code statementFetchSize} строк только внутри транзакции.
+     *
+     * @param action получает строки с {@code runningTotal}, равным {@code null}
+     */
+    public void streamLines(UUID accountId, OffsetDateTime from, OffsetDateTime to, Consumer<StatementLine> action) {
+        RowCallbackHandler handler = rs -> action.accept(new StatementLine(
+                rs.getObject("id", UUID.class),
+                rs.getObject("created_at", OffsetDateTime.class),
+                TransferDirection.valueOf(rs.getString("direction")),
+                rs.getObject("counterparty_id", UUID.class),
+                rs.getBigDecimal("amount"),
+                rs.getBigDecimal("fee"),
+                TransferStatus.valueOf(rs.getString("status")),
+                rs.getBigDecimal("balance_change"),
+                null
+        ));
+        streamingJdbc.query(SQL, handler, accountId, from, to, accountId, from, to);
+    }
+}
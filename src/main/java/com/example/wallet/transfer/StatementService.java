@@ -0,0 +1,76 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.account.AccountRepository;
+import com.example.wallet.common.MoneyConstants;
+import com.example.wallet.transfer.dto.StatementLine;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Выписка по счёту за период: переводы от старых к новым с нарастающим итогом изменения баланса.
+ * <p>
+ * Пополнения и снятия нигде не журналируются, поэтому выписка содержит только переводы, а нарастающий
+ * итог считается от нуля на начало периода, а не от баланса счёта.
+ */
+@Service
+public class StatementService {
+
+    private final StatementJdbcRepository statementRepo;
+
+    private final AccountRepository accountRepo;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public StatementService(StatementJdbcRepository statementRepo, AccountRepository accountRepo,
+                            PlatformTransactionManager transactionManager) {
+        this.statementRepo = statementRepo;
+        this.accountRepo = accountRepo;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Проверяет запрос сразу, а строки читает только при вызове {@link Statement#forEachLine}: к этому моменту
+     * ответ уже может быть начат, и сообщить об ошибке статусом будет нельзя.
+     *
+     * @param from начало периода включительно
+     * @param to   конец периода не включительно
+     * @throws ResponseStatusException если счёт не найден или период пустой
+     */
+    public Statement statement(UUID accountId, OffsetDateTime from, OffsetDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+        }
+        if (!accountRepo.existsById(accountId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found");
+        }
+        return action -> readOnlyTransaction.executeWithoutResult(status -> {
+            BigDecimal[] runningTotal = {BigDecimal.ZERO.setScale(MoneyConstants.SCALE, RoundingMode.HALF_UP)};
+            statementRepo.streamLines(accountId, from, to, line -> {
+                runningTotal[0] = runningTotal[0].add(line.balanceChange());
+                action.accept(new StatementLine(
+                        line.transferId(), line.createdAt(), line.direction(), line.counterpartyId(),
+                        line.amount(), line.fee(), line.status(), line.balanceChange(), runningTotal[0]
+                ));
+            });
+        });
+    }
+
+    @FunctionalInterface
+    public interface Statement {
+
+        /**
+         * Читает выписку курсором в транзакции только для чтения и передаёт строки по одной.
+         */
+        void forEachLine(Consumer<StatementLine> action);
+    }
+}
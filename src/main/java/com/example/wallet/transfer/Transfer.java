@@ -26,7 +26,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "transfers", indexes = {
         @Index(name = "idx_transfer_from_created", columnList = "from_account_id, created_at"),
-        @Index(name = "idx_transfer_to", columnList = "to_account_id")
+        @Index(name = "idx_transfer_to_created", columnList = "to_account_id, created_at")
 })
 @Getter
 @Setter
@@ -0,0 +1,108 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.configuration.TransferProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Выбирает стратегию перевода и следит за конфликтами оптимистичных переводов.
+ * <p>
+ * Подключается к {@code @Retryable} оптимистичного перевода как {@link RetryListener}: каждый вызов
+ * считается как перевод, каждая неудачная из-за конфликта попытка — как конфликт. Раз в окно доля
+ * конфликтов сравнивается с порогом; в режиме {@link TransferStrategy#ADAPTIVE} превышение порога
+ * переключает переводы на блокировки на время паузы, после чего снова пробуется оптимистичный режим.
+ */
+@Slf4j
+@Component("transferContentionMonitor")
+public class TransferContentionMonitor implements RetryListener {
+
+    private final TransferProperties properties;
+
+    private final Clock clock;
+
+    private final Counter conflictCounter;
+
+    private final AtomicLong transfers = new AtomicLong();
+
+    private final AtomicLong conflicts = new AtomicLong();
+
+    private volatile Instant pessimisticUntil = Instant.MIN;
+
+    public TransferContentionMonitor(TransferProperties properties, Clock clock, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.clock = clock;
+        this.conflictCounter = Counter.builder("wallet.transfer.optimistic.conflicts")
+                .description("Optimistic transfer attempts rolled back because of concurrent updates")
+                .register(meterRegistry);
+        for (TransferStrategy strategy : TransferStrategy.values()) {
+            if (strategy == TransferStrategy.ADAPTIVE) {
+                continue;
+            }
+            Gauge.builder("wallet.transfer.strategy", this, monitor -> monitor.currentStrategy() == strategy ? 1 : 0)
+                    .description("1 for the strategy transfers by id currently use")
+                    .tag("strategy", strategy.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Возвращает стратегию для очередного перевода: настроенную, а в режиме {@link TransferStrategy#ADAPTIVE} —
+     * {@link TransferStrategy#PESSIMISTIC} или {@link TransferStrategy#OPTIMISTIC} в зависимости от доли
+     * конфликтов. {@link TransferStrategy#ADAPTIVE} не возвращается никогда.
+     */
+    public TransferStrategy currentStrategy() {
+        TransferStrategy configured = properties.getStrategy();
+        if (configured != TransferStrategy.ADAPTIVE) {
+            return configured;
+        }
+        return clock.instant().isBefore(pessimisticUntil) ? TransferStrategy.PESSIMISTIC : TransferStrategy.OPTIMISTIC;
+    }
+
+    @Override
+    public <T, E extends Throwable> boolean open(RetryContext context, RetryCallback<T, E> callback) {
+        transfers.incrementAndGet();
+        return true;
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                 Throwable throwable) {
+        if (throwable instanceof OptimisticLockingFailureException
+                || throwable instanceof DataIntegrityViolationException) {
+            conflicts.incrementAndGet();
+            conflictCounter.increment();
+        }
+    }
+
+    /**
+     * Подводит итог окна наблюдения и при необходимости переключает ADAPTIVE на блокировки.
+     */
+    @Scheduled(fixedDelayString = "${wallet.transfer.adaptive-window-ms}")
+    public void evaluate() {
+        long total = transfers.getAndSet(0);
+        long conflicted = conflicts.getAndSet(0);
+        if (properties.getStrategy() != TransferStrategy.ADAPTIVE || total < properties.getAdaptiveMinSamples()) {
+            return;
+        }
+
+        double rate = (double) conflicted / total;
+        if (rate > properties.getAdaptiveConflictRate()) {
+            pessimisticUntil = clock.instant().plusMillis(properties.getAdaptiveCooldownMs());
+            log.info("Transfer conflict rate {} over {} transfers, switching to pessimistic locking for {} ms",
+                    rate, total, properties.getAdaptiveCooldownMs());
+        }
+    }
+}
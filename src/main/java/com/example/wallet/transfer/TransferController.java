@@ -1,5 +1,7 @@
 package com.example.wallet.transfer;
 
+import com.example.wallet.transfer.dto.BatchTransferRequest;
+import com.example.wallet.transfer.dto.BatchTransferResponse;
 import com.example.wallet.transfer.dto.CountResponse;
 import com.example.wallet.transfer.dto.TransferByNamesRequest;
 import com.example.wallet.transfer.dto.TransferRequest;
@@ -25,15 +27,31 @@ public class TransferController {
 
     private final TransferService service;
 
+    private final TransferContentionMonitor contentionMonitor;
+
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
     public TransferResponse create(@Valid @RequestBody TransferRequest req) {
-        return service.transfer(
-                req.getFromAccountId(),
-                req.getToAccountId(),
-                req.getAmount(),
-                req.getIdempotencyKey()
-        );
+        return switch (contentionMonitor.currentStrategy()) {
+            case OPTIMISTIC -> service.transferOptimistic(
+                    req.getFromAccountId(),
+                    req.getToAccountId(),
+                    req.getAmount(),
+                    req.getIdempotencyKey()
+            );
+            case CONDITIONAL_UPDATE -> service.transferConditional(
+                    req.getFromAccountId(),
+                    req.getToAccountId(),
+                    req.getAmount(),
+                    req.getIdempotencyKey()
+            );
+            default -> service.transfer(
+                    req.getFromAccountId(),
+                    req.getToAccountId(),
+                    req.getAmount(),
+                    req.getIdempotencyKey()
+            );
+        };
     }
 
     @PostMapping(value = "/by-names", consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -48,6 +66,11 @@ public class TransferController {
         );
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BatchTransferResponse createBatch(@Valid @RequestBody BatchTransferRequest req) {
+        return service.transferBatch(req.getTransfers());
+    }
+
     @GetMapping("/{id}")
     public TransferResponse get(@PathVariable UUID id) {
         return service.get(id);
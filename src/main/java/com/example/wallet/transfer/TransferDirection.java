@@ -0,0 +1,10 @@
+package com.example.wallet.transfer;
+
+/**
+ * Какие переводы счёта показывать в истории.
+ */
+public enum TransferDirection {
+    IN,
+    OUT,
+    ALL
+}
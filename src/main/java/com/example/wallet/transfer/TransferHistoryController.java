@@ -0,0 +1,47 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.transfer.dto.TransferHistoryFilter;
+import com.example.wallet.transfer.dto.TransferPage;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@RestController
+@RequestMapping(value = "/accounts/{accountId}/transfers", produces = MediaType.APPLICATION_JSON_VALUE)
+@Validated
+@RequiredArgsConstructor
+public class TransferHistoryController {
+
+    private final TransferHistoryService service;
+
+    @GetMapping
+    public TransferPage history(
+            @PathVariable UUID accountId,
+            @RequestParam(defaultValue = "ALL") TransferDirection direction,
+            @RequestParam(required = false) TransferStatus status,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) @Min(1) Integer limit
+    ) {
+        return service.history(
+                accountId,
+                new TransferHistoryFilter(direction, status, minAmount, maxAmount, from, to),
+                cursor,
+                limit
+        );
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.account.AccountMetadataCache;
+import com.example.wallet.configuration.TransferProperties;
+import com.example.wallet.transfer.dto.TransferHistoryFilter;
+import com.example.wallet.transfer.dto.TransferPage;
+import com.example.wallet.transfer.dto.TransferResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * История переводов счёта страницами от новых к старым.
+ * <p>
+ * Курсор — {@code (created_at, id)} последнего перевода страницы, поэтому вставки новых переводов
+ * не сдвигают следующие страницы.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransferHistoryService {
+
+    private final TransferJdbcRepository transferJdbcRepo;
+
+    private final AccountMetadataCache metadataCache;
+
+    private final TransferProperties properties;
+
+    /**
+     * @param cursor {@code nextCursor} предыдущей страницы или {@code null} для первой страницы
+     * @param limit  размер страницы; {@code null} — размер по умолчанию, больше максимального — максимальный
+     * @throws ResponseStatusException если счёт не найден или курсор не удаётся разобрать
+     */
+    public TransferPage history(UUID accountId, TransferHistoryFilter filter, String cursor, Integer limit) {
+        if (metadataCache.getAll(List.of(accountId)).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found");
+        }
+        int pageSize = limit == null
+                ? properties.getHistoryDefaultPageSize()
+                : Math.min(limit, properties.getHistoryMaxPageSize());
+
+        Cursor after = cursor == null ? new Cursor(null, null) : Cursor.decode(cursor);
+
+        List<TransferResponse> page = transferJdbcRepo.findHistory(
+                accountId, filter, after.createdAt(), after.id(), pageSize + 1);
+        if (page.size() <= pageSize) {
+            return new TransferPage(page, null);
+        }
+        List<TransferResponse> items = page.subList(0, pageSize);
+        TransferResponse last = items.get(pageSize - 1);
+        return new TransferPage(items, new Cursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    record Cursor(OffsetDateTime createdAt, UUID id) {
+
+        String encode() {
+            Instant instant = createdAt.toInstant();
+            ByteBuffer bytes = ByteBuffer.allocate(28)
+                    .putLong(instant.getEpochSecond())
+                    .putInt(instant.getNano())
+                    .putLong(id.getMostSignificantBits())
+                    .putLong(id.getLeastSignificantBits());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                ByteBuffer bytes = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+                Instant createdAt = Instant.ofEpochSecond(bytes.getLong(), bytes.getInt());
+                UUID id = new UUID(bytes.getLong(), bytes.getLong());
+                if (bytes.hasRemaining()) {
+                    throw new IllegalArgumentException("trailing bytes");
+                }
+                return new Cursor(createdAt.atOffset(ZoneOffset.UTC), id);
+            } catch (IllegalArgumentException | BufferUnderflowException | DateTimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+    }
+}
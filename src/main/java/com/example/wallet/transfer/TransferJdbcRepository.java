@@ -0,0 +1,225 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.transfer.dto.TransferHistoryFilter;
+import com.example.wallet.transfer.dto.TransferResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Запросы для перевода условными UPDATE без загрузки сущностей, см. {@link TransferService#transferConditional}.
+ * <p>
+ * Каждый UPDATE счёта увеличивает {@code version}, чтобы оптимистичные переводы через JPA
+ * замечали эти изменения.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransferJdbcRepository {
+
+    private static final String HISTORY_COLUMNS =
+            "SELECT id, from_account_id, to_account_id, amount, status, created_at, fee FROM transfers ";
+
+    private static final String HISTORY_ORDER = "ORDER BY created_at DESC, id DESC LIMIT :limit";
+
+    private static final RowMapper<TransferResponse> HISTORY_ROW_MAPPER = (rs, rowNum) -> new TransferResponse(
+            rs.getObject("id", UUID.class),
+            rs.getObject("from_account_id", UUID.class),
+            rs.getObject("to_account_id", UUID.class),
+            rs.getBigDecimal("amount"),
+            TransferStatus.valueOf(rs.getString("status")),
+            rs.getObject("created_at", OffsetDateTime.class),
+            rs.getBigDecimal("fee")
+    );
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Читает неизменяемые поля счетов и их баланс без блокировок.
+     *
+     * @return найденные счета по id
+     */
+    public Map<UUID, AccountInfo> findAccounts(UUID firstId, UUID secondId) {
+        Map<UUID, AccountInfo> accounts = new HashMap<>();
+        jdbc.query(
+                "SELECT id, currency, balance, balance_slots, created_at FROM accounts WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", List.of(firstId, secondId)),
+                rs -> {
+                    UUID id = rs.getObject("id", UUID.class);
+                    accounts.put(id, new AccountInfo(
+                            id,
+                            rs.getString("currency"),
+                            rs.getBigDecimal("balance"),
+                            rs.getInt("balance_slots") > 0,
+                            rs.getObject("created_at", OffsetDateTime.class)
+                    ));
+                }
+        );
+        return accounts;
+    }
+
+    /**
+     * Списывает средства, только если их хватает.
+     *
+     * @return {@code false}, если средств недостаточно
+     */
+    public boolean debit(UUID accountId, BigDecimal amount) {
+        return jdbc.update(
+                "UPDATE accounts SET balance = balance - :amount, version = version + 1 "
+                        + "WHERE id = :id AND balance >= :amount",
+                new MapSqlParameterSource("id", accountId).addValue("amount", amount)
+        ) == 1;
+    }
+
+    public void credit(UUID accountId, BigDecimal amount) {
+        jdbc.update(
+                "UPDATE accounts SET balance = balance + :amount, version = version + 1 WHERE id = :id",
+                new MapSqlParameterSource("id", accountId).addValue("amount", amount)
+        );
+    }
+
+    /**
+     * Увеличивает дневной счётчик, только если строка за этот день есть и лимит не превышается.
+     *
+     * @return {@code false}, если строки нет или лимит был бы превышен
+     */
+    public boolean addToDailyTotal(UUID accountId, LocalDate date, BigDecimal amount, BigDecimal limit) {
+        return jdbc.update(
+                "UPDATE daily_transfer_totals SET total = total + :amount "
+                        + "WHERE account_id = :id AND transfer_date = :date AND total + :amount <= :limit",
+                new MapSqlParameterSource("id", accountId)
+                        .addValue("date", date)
+                        .addValue("amount", amount)
+                        .addValue("limit", limit)
+        ) == 1;
+    }
+
+    public Optional<BigDecimal> findDailyTotal(UUID accountId, LocalDate date) {
+        return jdbc.query(
+                "SELECT total FROM daily_transfer_totals WHERE account_id = :id AND transfer_date = :date",
+                new MapSqlParameterSource("id", accountId).addValue("date", date),
+                (rs, rowNum) -> rs.getBigDecimal("total")
+        ).stream().findFirst();
+    }
+
+    public void insertDailyTotal(UUID accountId, LocalDate date, BigDecimal total) {
+        jdbc.update(
+                "INSERT INTO daily_transfer_totals (account_id, transfer_date, total) VALUES (:id, :date, :total)",
+                new MapSqlParameterSource("id", accountId).addValue("date", date).addValue("total", total)
+        );
+    }
+
+    public void recordOutgoing(UUID accountId, BigDecimal sent) {
+        MapSqlParameterSource params = new MapSqlParameterSource("id", accountId).addValue("sent", sent);
+        int updated = jdbc.update(
+                "UPDATE account_statistics SET outgoing_count = outgoing_count + 1, total_sent = total_sent + :sent "
+                        + "WHERE account_id = :id",
+                params
+        );
+        if (updated == 0) {
+            jdbc.update(
+                    "INSERT INTO account_statistics "
+                            + "(account_id, incoming_count, outgoing_count, total_received, total_sent) "
+                            + "VALUES (:id, 0, 1, 0, :sent)",
+                    params
+            );
+        }
+    }
+
+    public void recordIncoming(UUID accountId, BigDecimal received) {
+        MapSqlParameterSource params = new MapSqlParameterSource("id", accountId).addValue("received", received);
+        int updated = jdbc.update(
+                "UPDATE account_statistics SET incoming_count = incoming_count + 1, "
+                        + "total_received = total_received + :received WHERE account_id = :id",
+                params
+        );
+        if (updated == 0) {
+            jdbc.update(
+                    "INSERT INTO account_statistics "
+                            + "(account_id, incoming_count, outgoing_count, total_received, total_sent) "
+                            + "VALUES (:id, 1, 0, :received, 0)",
+                    params
+            );
+        }
+    }
+
+    public void insertTransfer(Transfer t) {
+        jdbc.update(
+                "INSERT INTO transfers "
+                        + "(id, idempotency_key, from_account_id, to_account_id, amount, status, created_at, fee) "
+                        + "VALUES (:id, :key, :fromId, :toId, :amount, :status, :createdAt, :fee)",
+                new MapSqlParameterSource("id", t.getId())
+                        .addValue("key", t.getIdempotencyKey())
+                        .addValue("fromId", t.getFromAccountId())
+                        .addValue("toId", t.getToAccountId())
+                        .addValue("amount", t.getAmount())
+                        .addValue("status", t.getStatus().name())
+                        .addValue("createdAt", t.getCreatedAt())
+                        .addValue("fee", t.getFee())
+        );
+    }
+
+    /**
+     * Переводы счёта от новых к старым, строго после {@code (afterCreatedAt, afterId)}.
+     * <p>
+     * Исходящие читаются по {@code idx_transfer_from_created}, входящие — по {@code idx_transfer_to_created}:
+     * условие на курсор — диапазон по {@code created_at} в индексе, поэтому дальние страницы стоят
+     * столько же, сколько первая. Для {@link TransferDirection#ALL} каждая сторона ограничивается
+     * {@code limit} строк, а результат объединяется.
+     *
+     * @param afterCreatedAt время последнего перевода предыдущей страницы или {@code null} для первой страницы
+     */
+    public List<TransferResponse> findHistory(UUID accountId, TransferHistoryFilter filter,
+                                              OffsetDateTime afterCreatedAt, UUID afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource("accountId", accountId).addValue("limit", limit);
+        StringBuilder conditions = new StringBuilder();
+        if (filter.status() != null) {
+            conditions.append(" AND status = :status");
+            params.addValue("status", filter.status().name());
+        }
+        if (filter.minAmount() != null) {
+            conditions.append(" AND amount >= :minAmount");
+            params.addValue("minAmount", filter.minAmount());
+        }
+        if (filter.maxAmount() != null) {
+            conditions.append(" AND amount <= :maxAmount");
+            params.addValue("maxAmount", filter.maxAmount());
+        }
+        if (filter.from() != null) {
+            conditions.append(" AND created_at >= :from");
+            params.addValue("from", filter.from());
+        }
+        if (filter.to() != null) {
+            conditions.append(" AND created_at < :to");
+            params.addValue("to", filter.to());
+        }
+        if (afterCreatedAt != null) {
+            conditions.append(" AND created_at <= :afterCreatedAt AND (created_at < :afterCreatedAt OR id < :afterId)");
+            params.addValue("afterCreatedAt", afterCreatedAt).addValue("afterId", afterId);
+        }
+
+        String outgoing = HISTORY_COLUMNS + "WHERE from_account_id = :accountId" + conditions + " " + HISTORY_ORDER;
+        String incoming = HISTORY_COLUMNS + "WHERE to_account_id = :accountId" + conditions + " " + HISTORY_ORDER;
+        String sql = switch (filter.direction()) {
+            case OUT -> outgoing;
+            case IN -> incoming;
+            case ALL -> "SELECT * FROM (" + outgoing + ") o UNION ALL SELECT * FROM (" + incoming + ") i "
+                    + HISTORY_ORDER;
+        };
+        return jdbc.query(sql, params, HISTORY_ROW_MAPPER);
+    }
+
+    public record AccountInfo(UUID id, String currency, BigDecimal balance, boolean hot, OffsetDateTime createdAt) {
+
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.wallet.transfer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Считает откаты переводов из-за блокировок БД: взаимные блокировки (deadlock), таймауты ожидания блокировки
+ * и исчерпанные повторы. Подключается к {@code @Retryable} переводов как {@link RetryListener}.
+ * <p>
+ * Все пути перевода блокируют счета в едином порядке, поэтому счётчик deadlock должен оставаться нулевым;
+ * ненулевое значение означает, что какой-то путь этот порядок нарушает.
+ */
+@Slf4j
+@Component("transferLockFailureMonitor")
+public class TransferLockFailureMonitor implements RetryListener {
+
+    private static final String METRIC = "wallet.transfer.lock.failures";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Счётчики откатов по причине; регистрируются при первом откате, до него метрики нет.
+     */
+    private final Map<String, Counter> failureCounters = new ConcurrentHashMap<>();
+
+    private final Counter retriesExhaustedCounter;
+
+    public TransferLockFailureMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.retriesExhaustedCounter = Counter.builder("wallet.transfer.lock.retries.exhausted")
+                .description("Transfers that failed after all lock failure retries")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                 Throwable throwable) {
+        if (throwable instanceof PessimisticLockingFailureException) {
+            String type = classify(throwable);
+            log.warn("Transfer attempt {} rolled back: {}", context.getRetryCount(), type);
+            failureCounters.computeIfAbsent(type, this::failureCounter).increment();
+        }
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                               Throwable throwable) {
+        if (throwable instanceof PessimisticLockingFailureException) {
+            retriesExhaustedCounter.increment();
+        }
+    }
+
+    /**
+     * Различает причину по SQLSTATE: {@code 40P01} — deadlock в PostgreSQL, {@code 40001} — deadlock
+     * в H2 или конфликт сериализации, остальное — таймаут или недоступность блокировки.
+     */
+    static String classify(Throwable throwable) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(throwable);
+        String state = cause instanceof SQLException sqlException ? sqlException.getSQLState() : null;
+        if ("40P01".equals(state) || "40001".equals(state)) {
+            return "deadlock";
+        }
+        return "lock-timeout";
+    }
+
+    private Counter failureCounter(String type) {
+        return Counter.builder(METRIC)
+                .description("Transfer attempts rolled back because of database lock failures")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.account.AccountBalanceService;
+import com.example.wallet.transfer.dto.FraudAnalysisResult;
+import com.example.wallet.transfer.dto.FraudRiskLevel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики переводов и антифрода.
+ * <p>
+ * Время одиночных переводов пишется в таймер {@code wallet.transfer.requests} с тегами {@code operation}
+ * (метод {@link TransferService}) и {@code outcome}. Замер снаружи повторов и транзакции, то есть
+ * включает ожидание блокировок, все попытки и коммит.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TransferMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter idempotencyHitCounter;
+
+    private final Timer fraudAnalysisTimer;
+
+    private final Map<FraudRiskLevel, Counter> assessmentCounters = new EnumMap<>(FraudRiskLevel.class);
+
+    /**
+     * Таймеры переводов по (операция, исход); регистрируются при первом появлении пары.
+     */
+    private final Map<RequestKey, Timer> requestTimers = new ConcurrentHashMap<>();
+
+    public TransferMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.idempotencyHitCounter = Counter.builder("wallet.transfer.idempotency.hits")
+                .description("Transfers answered from an earlier transfer with the same idempotency key")
+                .register(meterRegistry);
+        this.fraudAnalysisTimer = Timer.builder("wallet.fraud.analysis")
+                .description("Time to analyse one batch of completed transfers")
+                .register(meterRegistry);
+        for (FraudRiskLevel level : FraudRiskLevel.values()) {
+            assessmentCounters.put(level, Counter.builder("wallet.fraud.assessments")
+                    .description("Analysed transfers by resulting risk level")
+                    .tag("risk", level.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Around("execution(public * com.example.wallet.transfer.TransferService.transfer(..))"
+            + " || execution(public * com.example.wallet.transfer.TransferService.transferOptimistic(..))"
+            + " || execution(public * com.example.wallet.transfer.TransferService.transferConditional(..))"
+            + " || execution(public * com.example.wallet.transfer.TransferService.transferByNames(..))")
+    public Object timeTransfer(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = outcome(e);
+            throw e;
+        } finally {
+            RequestKey key = new RequestKey(joinPoint.getSignature().getName(), outcome);
+            requestTimers.computeIfAbsent(key, this::requestTimer)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Переводы с уже использованным ключом идемпотентности, на которые вернули сохранённый перевод.
+     */
+    public void idempotencyHits(int count) {
+        idempotencyHitCounter.increment(count);
+    }
+
+    public void fraudAnalysed(long startNanos, Collection<FraudAnalysisResult> results) {
+        fraudAnalysisTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        for (FraudAnalysisResult result : results) {
+            assessmentCounters.get(result.getRiskLevel()).increment();
+        }
+    }
+
+    /**
+     * Причина отказа по коду и тексту {@link ResponseStatusException}.
+     */
+    static String outcome(Throwable e) {
+        if (!(e instanceof ResponseStatusException rse)) {
+            return "error";
+        }
+        String reason = rse.getReason() == null ? "" : rse.getReason();
+        if (reason.startsWith(AccountBalanceService.INSUFFICIENT_FUNDS)) {
+            return "insufficient-funds";
+        }
+        if (reason.startsWith(TransferService.DAILY_LIMIT_EXCEEDED)) {
+            return "limit-exceeded";
+        }
+        if (reason.startsWith(TransferService.CURRENCY_MISMATCH)) {
+            return "currency-mismatch";
+        }
+        if (rse.getStatusCode() == HttpStatus.NOT_FOUND) {
+            return "not-found";
+        }
+        if (rse.getStatusCode() == HttpStatus.CONFLICT || rse.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE) {
+            return "busy";
+        }
+        return "rejected";
+    }
+
+    private Timer requestTimer(RequestKey key) {
+        return Timer.builder("wallet.transfer.requests")
+                .description("Single transfer latency, including lock waits, retries and commit")
+                .tag("operation", key.operation())
+                .tag("outcome", key.outcome())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record RequestKey(String operation, String outcome) {
+
+    }
+}
@@ -6,8 +6,9 @@ import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -20,32 +21,27 @@ public interface TransferRepository extends JpaRepository<Transfer, UUID> {
     @Query("SELECT COUNT(t) FROM Transfer t WHERE t.status = :status")
     long countTransfersByStatus(@Param("status") TransferStatus status);
 
-    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transfer t " +
-            "WHERE t.fromAccountId = :accountId " +
-            "AND t.status = 'COMPLETED' " +
-            "AND t.createdAt >= :startDate")
-    BigDecimal sumDailyTransfers(@Param("accountId") UUID accountId, @Param("startDate") OffsetDateTime startDate);
-
-    @Query("SELECT COUNT(t) FROM Transfer t WHERE t.status = 'COMPLETED' AND t.fromAccountId = :accountId")
-    long countOutgoingTransfersById(@Param("accountId") UUID fromId);
+    Optional<Transfer> findByIdempotencyKey(UUID idempotencyKey);
 
-    @Query("SELECT COUNT(t) FROM Transfer t WHERE t.status = 'COMPLETED' AND t.toAccountId = :accountId")
-    long countIncomingTransfersById(@Param("accountId") UUID toId);
+    List<Transfer> findAllByIdempotencyKeyIn(Collection<UUID> idempotencyKeys);
 
-    @Query("SELECT COALESCE(SUM(t.amount + t.fee), 0) FROM Transfer t " +
-            "WHERE t.fromAccountId = :accountId " +
-            "AND t.status = 'COMPLETED'")
-    BigDecimal sumOutgoingTransfers(@Param("accountId") UUID fromId);
+    /**
+     * Считает исходящие переводы с момента {@code since} сразу для нескольких отправителей.
+     * Отправители без переводов в результат не попадают.
+     */
+    @Query("SELECT t.fromAccountId AS accountId, COUNT(t) AS count FROM Transfer t " +
+            "WHERE t.fromAccountId IN :accountIds " +
+            "AND t.createdAt >= :since " +
+            "GROUP BY t.fromAccountId")
+    List<RecentTransferCount> countRecentTransfers(
+            @Param("accountIds") Collection<UUID> accountIds,
+            @Param("since") OffsetDateTime since
+    );
 
-    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transfer t " +
-            "WHERE t.toAccountId = :accountId " +
-            "AND t.status = 'COMPLETED'")
-    BigDecimal sumIncomingTransfers(@Param("accountId") UUID toId);
+    interface RecentTransferCount {
 
-    Optional<Transfer> findByIdempotencyKey(UUID idempotencyKey);
+        UUID getAccountId();
 
-    @Query("SELECT COUNT(t) FROM Transfer t " +
-            "WHERE t.fromAccountId = :accountId " +
-            "AND t.createdAt >= :since")
-    long countRecentTransfers(@Param("accountId") UUID accountId, @Param("since") OffsetDateTime since);
+        long getCount();
+    }
 }
\ No newline at end of file
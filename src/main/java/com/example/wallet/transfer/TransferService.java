@@ -1,20 +1,27 @@
 package com.example.wallet.transfer;
 
 import com.example.wallet.account.Account;
+import com.example.wallet.account.AccountBalanceService;
 import com.example.wallet.account.AccountLockingService;
-import com.example.wallet.account.AccountRepository;
+import com.example.wallet.account.AccountReadCache;
+import com.example.wallet.account.AccountStatisticsService;
 import com.example.wallet.common.MoneyConstants;
-import com.example.wallet.configuration.FraudProperties;
 import com.example.wallet.event.TransferCompletedEvent;
+import com.example.wallet.transfer.dto.BatchTransferItemResponse;
+import com.example.wallet.transfer.dto.BatchTransferResponse;
 import com.example.wallet.transfer.dto.CountResponse;
-import com.example.wallet.transfer.dto.FraudAnalysisResult;
-import com.example.wallet.transfer.dto.FraudRiskLevel;
+import com.example.wallet.transfer.dto.TransferRequest;
 import com.example.wallet.transfer.dto.TransferResponse;
-import com.example.wallet.transfer.fraud.FraudRule;
-import com.example.wallet.transfer.fraud.FraudRuleResult;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Recover;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
@@ -22,12 +29,18 @@ import org.springframework.web.server.ResponseStatusException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Clock;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Сервис для выполнения денежных переводов между счетами.
@@ -35,21 +48,36 @@ import java.util.UUID;
  */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class TransferService {
 
-    private final AccountRepository accountRepo;
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    private static final String ACCOUNTS_BUSY = "Accounts are busy, please try again later";
+
+    static final String CURRENCY_MISMATCH = "currency mismatch";
+
+    static final String DAILY_LIMIT_EXCEEDED = "Daily transfer limit exceeded";
 
     private final TransferRepository transferRepo;
 
+    private final DailyTransferTotalRepository dailyTotalRepo;
+
+    private final TransferJdbcRepository transferJdbcRepo;
+
     private final AccountLockingService accountLockingService;
 
+    private final AccountStatisticsService statisticsService;
+
+    private final AccountBalanceService balances;
+
     private final Clock clock;
 
     private final ApplicationEventPublisher eventPublisher;
 
-    private final FraudProperties fraudProperties;
+    private final TransferMetrics transferMetrics;
 
-    private final List<FraudRule> fraudRules;
+    private final AccountReadCache readCache;
 
     /**
      * Выполняет перевод между счетами по их ID.
@@ -63,14 +91,25 @@ public class TransferService {
      * @return информация о выполненном переводе
      * @throws ResponseStatusException если счета не найдены, недостаточно средств или валюты не совпадают
      */
+    @Retryable(
+            retryFor = PessimisticLockingFailureException.class,
+            notRecoverable = ResponseStatusException.class,
+            maxAttemptsExpression = "${wallet.transfer.lock-retry-max-attempts}",
+            backoff = @Backoff(delayExpression = "${wallet.transfer.lock-retry-backoff-ms}", multiplier = 2, random = true),
+            listeners = "transferLockFailureMonitor",
+            recover = "recoverBusyAccounts"
+    )
     @Transactional
     public TransferResponse transfer(UUID fromId, UUID toId, BigDecimal amount, UUID idempotencyKey) {
+        accountLockingService.queueForTransfer(fromId, toId);
+
         Optional<Transfer> existing = transferRepo.findByIdempotencyKey(idempotencyKey);
         if (existing.isPresent()) {
+            transferMetrics.idempotencyHits(1);
             return toResponse(existing.get());
         }
 
-        AccountLockingService.AccountPair accounts = accountLockingService.lockTwoAccounts(
+        AccountLockingService.AccountPair accounts = accountLockingService.lockForTransfer(
                 fromId,
                 toId
         );
@@ -79,22 +118,248 @@ public class TransferService {
         return transferByAccounts(accounts.from(), accounts.to(), amount, idempotencyKey);
     }
 
+    /**
+     * Выполняет перевод по ID счетов без блокировок строк счетов.
+     * <p>
+     * Счета читаются как есть, а конфликт с параллельным переводом обнаруживается при коммите
+     * по {@code @Version} счёта (или по уникальности при первой за день записи счётчиков). Тогда
+     * транзакция откатывается и перевод повторяется целиком со случайной экспоненциальной паузой.
+     *
+     * @throws ResponseStatusException если перевод не проходит проверки, или 409, если попытки исчерпаны
+     */
+    @Retryable(
+            retryFor = {ObjectOptimisticLockingFailureException.class, DataIntegrityViolationException.class},
+            notRecoverable = ResponseStatusException.class,
+            maxAttemptsExpression = "${wallet.transfer.optimistic-max-attempts}",
+            backoff = @Backoff(
+                    delayExpression = "${wallet.transfer.optimistic-backoff-ms}",
+                    maxDelayExpression = "${wallet.transfer.optimistic-max-backoff-ms}",
+                    multiplier = 2,
+                    random = true
+            ),
+            listeners = "transferContentionMonitor",
+            recover = "recoverBusyAccounts"
+    )
+    @Transactional
+    public TransferResponse transferOptimistic(UUID fromId, UUID toId, BigDecimal amount, UUID idempotencyKey) {
+        AccountLockingService.AccountPair accounts = accountLockingService.readForTransfer(fromId, toId);
+        return transferByAccounts(accounts.from(), accounts.to(), amount, idempotencyKey);
+    }
+
+    @Recover
+    public TransferResponse recoverBusyAccounts(
+            RuntimeException e, UUID fromId, UUID toId, BigDecimal amount, UUID idempotencyKey) {
+        throw new ResponseStatusException(HttpStatus.CONFLICT, ACCOUNTS_BUSY);
+    }
+
+    @Recover
+    public TransferResponse recoverBusyAccountsByNames(
+            RuntimeException e, String fromName, String toName, String currency, BigDecimal amount,
+            UUID idempotencyKey) {
+        throw new ResponseStatusException(HttpStatus.CONFLICT, ACCOUNTS_BUSY);
+    }
+
+    @Recover
+    public BatchTransferResponse recoverBusyAccountsBatch(RuntimeException e, List<TransferRequest> requests) {
+        throw new ResponseStatusException(HttpStatus.CONFLICT, ACCOUNTS_BUSY);
+    }
+
+    /**
+     * Выполняет перевод по ID счетов условными UPDATE через JDBC, не загружая сущности.
+     * <p>
+     * Списание {@code balance = balance - x WHERE balance >= x} одновременно проверяет остаток и блокирует
+     * строку отправителя; строки счетов обновляются в порядке {@link AccountLockingService#LOCK_ORDER}.
+     * Проверки и тексты ошибок те же, что у {@link #transfer}. Переводы с участием горячих счетов
+     * выполняются через {@link #transfer}, так как их баланс распределён по слотам.
+     */
+    @Retryable(
+            retryFor = PessimisticLockingFailureException.class,
+            notRecoverable = ResponseStatusException.class,
+            maxAttemptsExpression = "${wallet.transfer.lock-retry-max-attempts}",
+            backoff = @Backoff(delayExpression = "${wallet.transfer.lock-retry-backoff-ms}", multiplier = 2, random = true),
+            listeners = "transferLockFailureMonitor",
+            recover = "recoverBusyAccounts"
+    )
+    @Transactional
+    public TransferResponse transferConditional(UUID fromId, UUID toId, BigDecimal amount, UUID idempotencyKey) {
+        accountLockingService.queueForTransfer(fromId, toId);
+
+        Optional<Transfer> existing = transferRepo.findByIdempotencyKey(idempotencyKey);
+        if (existing.isPresent()) {
+            transferMetrics.idempotencyHits(1);
+            return toResponse(existing.get());
+        }
+        if (fromId.equals(toId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from and to must differ");
+        }
+
+        Map<UUID, TransferJdbcRepository.AccountInfo> accounts = transferJdbcRepo.findAccounts(fromId, toId);
+        TransferJdbcRepository.AccountInfo from = accounts.get(fromId);
+        TransferJdbcRepository.AccountInfo to = accounts.get(toId);
+        if (from == null || to == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found");
+        }
+        if (from.hot() || to.hot()) {
+            AccountLockingService.AccountPair locked = accountLockingService.lockForTransfer(fromId, toId);
+            return transferByAccounts(locked.from(), locked.to(), amount, idempotencyKey);
+        }
+
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "amount must be > 0");
+        }
+        BigDecimal normalized = normalize(amount);
+        BigDecimal fee = calculateFee(normalized);
+        BigDecimal amountWithFee = normalized.add(fee);
+
+        if (!from.currency().equalsIgnoreCase(to.currency())) {
+            if (from.balance().compareTo(amountWithFee) < 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, AccountBalanceService.INSUFFICIENT_FUNDS);
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, CURRENCY_MISMATCH);
+        }
+
+        boolean isFromFirst = AccountLockingService.LOCK_ORDER.compare(fromId, toId) < 0;
+        if (!isFromFirst) {
+            transferJdbcRepo.credit(toId, normalized);
+        }
+        if (!transferJdbcRepo.debit(fromId, amountWithFee)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, AccountBalanceService.INSUFFICIENT_FUNDS);
+        }
+        if (isFromFirst) {
+            transferJdbcRepo.credit(toId, normalized);
+        }
+        readCache.evictAfterCommit(fromId);
+        readCache.evictAfterCommit(toId);
+        reserveDailyLimitConditional(fromId, normalized);
+        transferJdbcRepo.recordOutgoing(fromId, amountWithFee);
+        transferJdbcRepo.recordIncoming(toId, normalized);
+
+        Transfer t = Transfer.builder()
+                .id(UUID.randomUUID())
+                .idempotencyKey(idempotencyKey)
+                .fromAccountId(fromId)
+                .toAccountId(toId)
+                .amount(normalized)
+                .status(TransferStatus.COMPLETED)
+                .createdAt(OffsetDateTime.now(clock))
+                .fee(fee)
+                .build();
+        transferJdbcRepo.insertTransfer(t);
+        publishCompleted(t, from.currency(), from.createdAt());
+        return toResponse(t);
+    }
+
+    /**
+     * Выполняет перевод по именам владельцев. Имена сначала разрешаются в id без блокировок,
+     * затем перевод ставится в очередь и счета блокируются так же, как при переводе по id.
+     */
+    @Retryable(
+            retryFor = PessimisticLockingFailureException.class,
+            notRecoverable = ResponseStatusException.class,
+            maxAttemptsExpression = "${wallet.transfer.lock-retry-max-attempts}",
+            backoff = @Backoff(delayExpression = "${wallet.transfer.lock-retry-backoff-ms}", multiplier = 2, random = true),
+            listeners = "transferLockFailureMonitor",
+            recover = "recoverBusyAccountsByNames"
+    )
     @Transactional
     public TransferResponse transferByNames(
             String fromName, String toName, String currency, BigDecimal amount, UUID idempotencyKey) {
+        UUID fromId = accountLockingService.resolveId(fromName, currency);
+        UUID toId = accountLockingService.resolveId(toName, currency);
+        accountLockingService.queueForTransfer(fromId, toId);
+
         Optional<Transfer> existing = transferRepo.findByIdempotencyKey(idempotencyKey);
         if (existing.isPresent()) {
+            transferMetrics.idempotencyHits(1);
             return toResponse(existing.get());
         }
 
-        AccountLockingService.AccountPair accounts = accountLockingService.lockTwoAccountsByName(
-                fromName,
-                toName,
-                currency
-        );
+        AccountLockingService.AccountPair accounts = accountLockingService.lockForTransfer(fromId, toId);
         return transferByAccounts(accounts.from(), accounts.to(), amount, idempotencyKey);
     }
 
+    /**
+     * Выполняет пачку переводов по ID счетов в одной транзакции.
+     * <p>
+     * Идемпотентность проверяется одним запросом на всю пачку, все участвующие счета блокируются
+     * один раз в глобальном порядке {@link AccountLockingService#LOCK_ORDER}, а переводы сохраняются
+     * пакетной вставкой. Ошибка отдельного перевода не откатывает остальные: для каждого элемента
+     * возвращается свой результат.
+     *
+     * @param requests переводы в порядке применения
+     * @return результаты в порядке исходных запросов
+     */
+    @Retryable(
+            retryFor = PessimisticLockingFailureException.class,
+            notRecoverable = ResponseStatusException.class,
+            maxAttemptsExpression = "${wallet.transfer.lock-retry-max-attempts}",
+            backoff = @Backoff(delayExpression = "${wallet.transfer.lock-retry-backoff-ms}", multiplier = 2, random = true),
+            listeners = "transferLockFailureMonitor",
+            recover = "recoverBusyAccountsBatch"
+    )
+    @Transactional
+    public BatchTransferResponse transferBatch(List<TransferRequest> requests) {
+        accountLockingService.queueAccounts(requests.stream()
+                .flatMap(req -> Stream.of(req.getFromAccountId(), req.getToAccountId()))
+                .toList());
+
+        Map<UUID, Transfer> existing = findExistingTransfers(requests);
+        transferMetrics.idempotencyHits(existing.size());
+
+        Set<UUID> accountIds = new HashSet<>();
+        for (TransferRequest req : requests) {
+            if (!existing.containsKey(req.getIdempotencyKey())) {
+                accountIds.add(req.getFromAccountId());
+                accountIds.add(req.getToAccountId());
+            }
+        }
+        Map<UUID, Account> accounts = accountLockingService.lockAccounts(accountIds);
+
+        Map<UUID, Transfer> applied = new LinkedHashMap<>();
+        Map<UUID, ResponseStatusException> rejected = new HashMap<>();
+
+        for (TransferRequest req : requests) {
+            UUID key = req.getIdempotencyKey();
+            if (existing.containsKey(key) || applied.containsKey(key) || rejected.containsKey(key)) {
+                continue;
+            }
+            try {
+                Account from = accounts.get(req.getFromAccountId());
+                Account to = accounts.get(req.getToAccountId());
+                if (from == null || to == null) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found");
+                }
+                applied.put(key, applyTransfer(from, to, req.getAmount(), key));
+            } catch (ResponseStatusException e) {
+                rejected.put(key, e);
+            }
+        }
+
+        transferRepo.saveAll(applied.values());
+        for (Transfer t : applied.values()) {
+            Account from = accounts.get(t.getFromAccountId());
+            publishCompleted(t, from.getCurrency(), from.getCreatedAt());
+        }
+
+        List<BatchTransferItemResponse> results = new ArrayList<>(requests.size());
+        int failed = 0;
+        for (TransferRequest req : requests) {
+            UUID key = req.getIdempotencyKey();
+            if (existing.containsKey(key)) {
+                results.add(new BatchTransferItemResponse(
+                        key, HttpStatus.OK.value(), toResponse(existing.get(key)), null));
+            } else if (applied.containsKey(key)) {
+                results.add(new BatchTransferItemResponse(
+                        key, HttpStatus.CREATED.value(), toResponse(applied.get(key)), null));
+            } else {
+                ResponseStatusException e = rejected.get(key);
+                results.add(new BatchTransferItemResponse(key, e.getStatusCode().value(), null, e.getReason()));
+                failed++;
+            }
+        }
+        return new BatchTransferResponse(requests.size() - failed, failed, results);
+    }
+
     public TransferResponse get(UUID id) {
         Transfer t = transferRepo.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transfer not found"));
@@ -104,6 +369,11 @@ public class TransferService {
         );
     }
 
+    /**
+     * Отменяет перевод, если с него прошло не больше 5 минут. Счета перевода известны только после чтения
+     * его строки, поэтому в очередь они ставятся после неё; ставятся оба, даже горячий получатель,
+     * так как отмена списывает с него.
+     */
     @Transactional
     public TransferResponse cancel(UUID id) {
         Transfer t = transferRepo.findByIdForUpdate(id)
@@ -116,21 +386,24 @@ public class TransferService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "5 minutes passed, can't cancel");
         }
 
+        accountLockingService.queueAccounts(List.of(t.getFromAccountId(), t.getToAccountId()));
         AccountLockingService.AccountPair accounts = accountLockingService.lockTwoAccounts(
                 t.getFromAccountId(),
                 t.getToAccountId()
         );
 
-        if (accounts.to().getBalance().compareTo(t.getAmount()) < 0) {
+        if (balances.balanceOf(accounts.to()).compareTo(t.getAmount()) < 0) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
                     "Cannot cancel: recipient has insufficient funds"
             );
         }
 
-        accounts.to().setBalance(accounts.to().getBalance().subtract(t.getAmount()));
-        accounts.from().setBalance(accounts.from().getBalance().add(t.getAmount().add(t.getFee())));
+        balances.debit(accounts.to(), t.getAmount());
+        balances.credit(accounts.from(), t.getAmount().add(t.getFee()));
         t.setStatus(TransferStatus.CANCELLED);
+        releaseDailyLimit(t);
+        statisticsService.revertTransfer(t.getFromAccountId(), t.getToAccountId(), t.getAmount(), t.getFee());
 
         return new TransferResponse(
                 t.getId(), t.getFromAccountId(), t.getToAccountId(),
@@ -142,71 +415,53 @@ public class TransferService {
         return new CountResponse(transferRepo.countTransfersByStatus(TransferStatus.COMPLETED));
     }
 
-    @Transactional(readOnly = true)
-    public FraudAnalysisResult analyzeFraud(TransferCompletedEvent event) {
-        Account fromAccount = accountRepo.findById(event.getFromAccountId())
-                .orElseThrow(() -> new IllegalStateException("Account not found"));
-
-        OffsetDateTime now = OffsetDateTime.now(clock);
-        int totalScore = 0;
-        List<String> reasons = new ArrayList<>();
-
-        for (FraudRule rule : fraudRules) {
-            Optional<FraudRuleResult> resultOpt = rule.check(event, fromAccount, now);
-            if (resultOpt.isPresent()) {
-                FraudRuleResult res = resultOpt.get();
-                totalScore += res.score();
-                reasons.add(res.reason() + " (+" + res.score() + ")");
-            }
-        }
-
-        FraudRiskLevel finalLevel = FraudRiskLevel.LOW;
-        if (totalScore >= fraudProperties.getScoreThresholdHigh()) {
-            finalLevel = FraudRiskLevel.HIGH;
-        } else if (totalScore >= fraudProperties.getScoreThresholdMedium()) {
-            finalLevel = FraudRiskLevel.MEDIUM;
-        }
-
-        return FraudAnalysisResult.builder()
-                .riskLevel(finalLevel)
-                .reasons(reasons)
-                .suspiciousAmount(event.getAmount())
-                .build();
-    }
-
     private TransferResponse transferByAccounts(Account from, Account to, BigDecimal amount, UUID idempotencyKey) {
 
         Optional<Transfer> existing = transferRepo.findByIdempotencyKey(idempotencyKey);
         if (existing.isPresent()) {
+            transferMetrics.idempotencyHits(1);
             return toResponse(existing.get());
         }
 
+        Transfer t = transferRepo.save(applyTransfer(from, to, amount, idempotencyKey));
+        publishCompleted(t, from.getCurrency(), from.getCreatedAt());
+        return toResponse(t);
+    }
+
+    /**
+     * Проверяет перевод и применяет его к уже заблокированным счетам, не сохраняя сам {@link Transfer}.
+     * Строка горячего получателя может быть не заблокирована: зачисление уходит в слот.
+     * Балансы меняются только после успешного прохождения всех проверок.
+     *
+     * @return несохранённый перевод
+     * @throws ResponseStatusException если перевод не проходит проверки
+     */
+    private Transfer applyTransfer(Account from, Account to, BigDecimal amount, UUID idempotencyKey) {
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "amount must be > 0");
         }
-        BigDecimal normalized = amount.setScale(MoneyConstants.SCALE, RoundingMode.HALF_UP);
-        BigDecimal fee = normalized.multiply(MoneyConstants.TRANSFER_FEE_PERCENT)
-                .setScale(MoneyConstants.SCALE, RoundingMode.HALF_UP);
-        fee = fee.max(MoneyConstants.MIN_FEE);
+        BigDecimal normalized = normalize(amount);
+        BigDecimal fee = calculateFee(normalized);
         BigDecimal amountWithFee = normalized.add(fee);
 
         if (from.getId().equals(to.getId())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot transfer to same account");
         }
 
-        if (from.getBalance().compareTo(amountWithFee) < 0) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient funds");
+        if (balances.balanceOf(from).compareTo(amountWithFee) < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, AccountBalanceService.INSUFFICIENT_FUNDS);
         }
 
         if (!from.getCurrency().equalsIgnoreCase(to.getCurrency())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "currency mismatch");
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, CURRENCY_MISMATCH);
         }
-        validateDailyLimit(from, normalized);
+        reserveDailyLimit(from, normalized);
 
-        from.setBalance(from.getBalance().subtract(amountWithFee));
-        to.setBalance(to.getBalance().add(normalized));
+        balances.debit(from, amountWithFee);
+        balances.creditTransfer(to, normalized);
+        statisticsService.recordOutgoing(from.getId(), normalized, fee);
 
-        Transfer t = Transfer.builder()
+        return Transfer.builder()
                 .idempotencyKey(idempotencyKey)
                 .fromAccountId(from.getId())
                 .toAccountId(to.getId())
@@ -214,37 +469,104 @@ public class TransferService {
                 .status(TransferStatus.COMPLETED)
                 .fee(fee)
                 .build();
+    }
 
-        t = transferRepo.save(t);
+    static BigDecimal normalize(BigDecimal amount) {
+        return amount.setScale(MoneyConstants.SCALE, RoundingMode.HALF_UP);
+    }
 
-        TransferCompletedEvent event = new TransferCompletedEvent(
-                t.getId(),
-                t.getFromAccountId(),
-                t.getToAccountId(),
-                t.getAmount()
-        );
-        eventPublisher.publishEvent(event);
-        return toResponse(t);
+    static BigDecimal calculateFee(BigDecimal normalizedAmount) {
+        return normalizedAmount.multiply(MoneyConstants.TRANSFER_FEE_PERCENT)
+                .setScale(MoneyConstants.SCALE, RoundingMode.HALF_UP)
+                .max(MoneyConstants.MIN_FEE);
     }
 
-    private void validateDailyLimit(Account account, BigDecimal transferAmount) {
-        OffsetDateTime startOfDay = OffsetDateTime.now(clock)
-                .truncatedTo(ChronoUnit.DAYS);
+    /**
+     * Публикует событие из данных, уже загруженных для перевода, чтобы консьюмерам не нужно было читать БД.
+     */
+    private void publishCompleted(Transfer t, String currency, OffsetDateTime senderCreatedAt) {
+        TransferCompletedEvent event = TransferCompletedEvent.builder()
+                .schemaVersion(TransferCompletedEvent.ENRICHED_SCHEMA_VERSION)
+                .transferId(t.getId())
+                .fromAccountId(t.getFromAccountId())
+                .toAccountId(t.getToAccountId())
+                .amount(t.getAmount())
+                .currency(currency)
+                .fee(t.getFee())
+                .createdAt(t.getCreatedAt())
+                .senderCreatedAt(senderCreatedAt)
+                .build();
+        eventPublisher.publishEvent(event);
+    }
 
-        BigDecimal todayTotal = transferRepo.sumDailyTransfers(
-                account.getId(), startOfDay);
+    /**
+     * Проверяет дневной лимит отправителя и учитывает перевод в счётчике за сегодня.
+     * Вызывается под блокировкой счёта-отправителя, поэтому счётчик не может измениться параллельно.
+     */
+    private void reserveDailyLimit(Account account, BigDecimal transferAmount) {
+        LocalDate today = LocalDate.now(clock);
+        DailyTransferTotal daily = dailyTotalRepo.findById(new DailyTransferTotal.Key(account.getId(), today))
+                .orElseGet(() -> new DailyTransferTotal(account.getId(), today));
 
-        BigDecimal newTotal = todayTotal.add(transferAmount);
+        BigDecimal newTotal = daily.getTotal().add(transferAmount);
 
         if (newTotal.compareTo(MoneyConstants.DAILY_TRANSFER_LIMIT) > 0) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
                     String.format(
-                            "Daily transfer limit exceeded: %.2f / %.2f",
+                            DAILY_LIMIT_EXCEEDED + ": %.2f / %.2f",
                             newTotal, MoneyConstants.DAILY_TRANSFER_LIMIT
                     )
             );
         }
+        daily.setTotal(newTotal);
+        if (daily.isNew()) {
+            dailyTotalRepo.save(daily);
+        }
+    }
+
+    /**
+     * То же, что {@link #reserveDailyLimit}, но условным UPDATE счётчика. Строка отправителя к этому моменту
+     * заблокирована списанием, поэтому счётчик не может измениться параллельно.
+     */
+    private void reserveDailyLimitConditional(UUID accountId, BigDecimal transferAmount) {
+        LocalDate today = LocalDate.now(clock);
+        if (transferJdbcRepo.addToDailyTotal(accountId, today, transferAmount, MoneyConstants.DAILY_TRANSFER_LIMIT)) {
+            return;
+        }
+
+        Optional<BigDecimal> current = transferJdbcRepo.findDailyTotal(accountId, today);
+        BigDecimal newTotal = current.orElse(BigDecimal.ZERO).add(transferAmount);
+        if (current.isPresent() || newTotal.compareTo(MoneyConstants.DAILY_TRANSFER_LIMIT) > 0) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    String.format(
+                            DAILY_LIMIT_EXCEEDED + ": %.2f / %.2f",
+                            newTotal, MoneyConstants.DAILY_TRANSFER_LIMIT
+                    )
+            );
+        }
+        transferJdbcRepo.insertDailyTotal(accountId, today, newTotal);
+    }
+
+    /**
+     * Возвращает сумму отменённого перевода в дневной лимит того дня, когда перевод был сделан.
+     */
+    private void releaseDailyLimit(Transfer t) {
+        LocalDate transferDate = t.getCreatedAt().atZoneSameInstant(clock.getZone()).toLocalDate();
+        dailyTotalRepo.findById(new DailyTransferTotal.Key(t.getFromAccountId(), transferDate))
+                .ifPresent(daily -> daily.setTotal(daily.getTotal().subtract(t.getAmount())));
+    }
+
+    private Map<UUID, Transfer> findExistingTransfers(List<TransferRequest> requests) {
+        List<UUID> keys = requests.stream().map(TransferRequest::getIdempotencyKey).distinct().toList();
+        Map<UUID, Transfer> existing = new HashMap<>();
+
+        for (int i = 0; i < keys.size(); i += IN_CLAUSE_CHUNK_SIZE) {
+            List<UUID> chunk = keys.subList(i, Math.min(i + IN_CLAUSE_CHUNK_SIZE, keys.size()));
+            transferRepo.findAllByIdempotencyKeyIn(chunk).forEach(t -> existing.put(t.getIdempotencyKey(), t));
+        }
+        return existing;
     }
 
     private TransferResponse toResponse(Transfer t) {
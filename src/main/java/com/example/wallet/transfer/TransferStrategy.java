@@ -0,0 +1,27 @@
+package com.example.wallet.transfer;
+
+/**
+ * Способ защиты перевода по ID от параллельных изменений тех же счетов.
+ */
+public enum TransferStrategy {
+
+    /**
+     * Строки счетов блокируются ({@code SELECT ... FOR UPDATE}) до конца транзакции.
+     */
+    PESSIMISTIC,
+
+    /**
+     * Счета читаются без блокировок, при записи проверяется {@code @Version}; при конфликте перевод повторяется.
+     */
+    OPTIMISTIC,
+
+    /**
+     * Балансы меняются условными UPDATE через JDBC без загрузки сущностей; строки блокируются самими UPDATE.
+     */
+    CONDITIONAL_UPDATE,
+
+    /**
+     * Оптимистичный режим, пока доля конфликтов не превысит порог; затем пессимистичный на время паузы.
+     */
+    ADAPTIVE
+}
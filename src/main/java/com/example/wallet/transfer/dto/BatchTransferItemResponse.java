@@ -0,0 +1,22 @@
+package com.example.wallet.transfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+public class BatchTransferItemResponse {
+
+    private UUID idempotencyKey;
+
+    /**
+     * HTTP-статус, который вернул бы одиночный POST /transfers для этого перевода.
+     */
+    private int status;
+
+    private TransferResponse transfer;
+
+    private String error;
+}
@@ -0,0 +1,16 @@
+package com.example.wallet.transfer.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchTransferRequest {
+
+    @NotEmpty
+    @Size(max = 5000, message = "batch must contain at most 5000 transfers")
+    private List<@Valid TransferRequest> transfers;
+}
@@ -0,0 +1,17 @@
+package com.example.wallet.transfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BatchTransferResponse {
+
+    private int succeeded;
+
+    private int failed;
+
+    private List<BatchTransferItemResponse> results;
+}
@@ -0,0 +1,21 @@
+package com.example.wallet.transfer.dto;
+
+import com.example.wallet.transfer.TransferDirection;
+import com.example.wallet.transfer.TransferStatus;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Строка выписки по счёту.
+ *
+ * @param balanceChange изменение баланса счёта этим переводом: {@code -(amount + fee)} для исходящего,
+ *                      {@code amount} для входящего, ноль для отменённого
+ * @param runningTotal  сумма {@code balanceChange} с начала периода выписки включительно
+ */
+public record StatementLine(UUID transferId, OffsetDateTime createdAt, TransferDirection direction,
+                            UUID counterpartyId, BigDecimal amount, BigDecimal fee, TransferStatus status,
+                            BigDecimal balanceChange, BigDecimal runningTotal) {
+
+}
@@ -0,0 +1,19 @@
+package com.example.wallet.transfer.dto;
+
+import com.example.wallet.transfer.TransferDirection;
+import com.example.wallet.transfer.TransferStatus;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Фильтры истории переводов счёта; {@code null} — без ограничения.
+ *
+ * @param from начало периода включительно
+ * @param to   конец периода не включительно
+ */
+public record TransferHistoryFilter(TransferDirection direction, TransferStatus status,
+                                    BigDecimal minAmount, BigDecimal maxAmount,
+                                    OffsetDateTime from, OffsetDateTime to) {
+
+}
@@ -0,0 +1,18 @@
+package com.example.wallet.transfer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class TransferPage {
+
+    private List<TransferResponse> items;
+
+    /**
+     * Передаётся в {@code cursor} за следующей страницей; {@code null} на последней странице.
+     */
+    private String nextCursor;
+}
@@ -1,10 +1,8 @@
 package com.example.wallet.transfer.fraud;
 
-import com.example.wallet.account.Account;
 import com.example.wallet.event.TransferCompletedEvent;
 import org.springframework.stereotype.Component;
 
-import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 
@@ -12,8 +10,8 @@ import java.util.Optional;
 public class AccountAgeRule implements FraudRule {
 
     @Override
-    public Optional<FraudRuleResult> check(TransferCompletedEvent event, Account account, OffsetDateTime now) {
-        long minutes = ChronoUnit.MINUTES.between(account.getCreatedAt(), now);
+    public Optional<FraudRuleResult> check(TransferCompletedEvent event, FraudCheckContext context) {
+        long minutes = ChronoUnit.MINUTES.between(event.getSenderCreatedAt(), context.now());
 
         if (minutes < 10) {
             return Optional.of(new FraudRuleResult(60, "Critical: Account created < 10 mins ago"));
@@ -23,4 +21,14 @@ public class AccountAgeRule implements FraudRule {
 
         return Optional.empty();
     }
-}
\ No newline at end of file
+
+    @Override
+    public FraudRuleCost cost() {
+        return FraudRuleCost.CHEAP;
+    }
+
+    @Override
+    public int maxScore() {
+        return 60;
+    }
+}
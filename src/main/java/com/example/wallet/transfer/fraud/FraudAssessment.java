@@ -0,0 +1,35 @@
+package com.example.wallet.transfer.fraud;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Промежуточный итог проверки одного перевода в {@link FraudRulePipeline}.
+ */
+@Getter
+public class FraudAssessment {
+
+    private int score;
+
+    private final List<String> reasons = new ArrayList<>();
+
+    /**
+     * Сколько баллов ещё могут дать непроверенные правила.
+     */
+    private int remainingMaxScore;
+
+    FraudAssessment(int remainingMaxScore) {
+        this.remainingMaxScore = remainingMaxScore;
+    }
+
+    void apply(FraudRule rule, Optional<FraudRuleResult> result) {
+        remainingMaxScore -= rule.maxScore();
+        result.ifPresent(res -> {
+            score += res.score();
+            reasons.add(res.reason() + " (+" + res.score() + ")");
+        });
+    }
+}
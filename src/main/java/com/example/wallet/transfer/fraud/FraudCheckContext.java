@@ -0,0 +1,18 @@
+package com.example.wallet.transfer.fraud;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Данные для проверки перевода, которых нет в самом событии; загружаются сразу для всей пачки событий,
+ * чтобы правила не ходили в БД.
+ *
+ * @param recentTransfers число исходящих переводов отправителя за окно velocity;
+ *                        {@code null}, пока проверяются {@link FraudRuleCost#CHEAP} правила
+ * @param now             текущее время
+ */
+public record FraudCheckContext(Long recentTransfers, OffsetDateTime now) {
+
+    public FraudCheckContext withRecentTransfers(long count) {
+        return new FraudCheckContext(count, now);
+    }
+}
@@ -1,9 +1,7 @@
 package com.example.wallet.transfer.fraud;
 
-import com.example.wallet.account.Account;
 import com.example.wallet.event.TransferCompletedEvent;
 
-import java.time.OffsetDateTime;
 import java.util.Optional;
 
 public interface FraudRule {
@@ -11,10 +9,18 @@ public interface FraudRule {
     /**
      * Проверяет событие на мошенничество.
      *
-     * @param event   само событие перевода
-     * @param account аккаунт отправителя
-     * @param now     текущее время
+     * @param event   само событие перевода вместе с данными отправителя, например временем создания его счёта
+     * @param context число недавних переводов отправителя ({@code null} для {@link FraudRuleCost#CHEAP} правил)
+     *                и текущее время
      * @return Optional с результатом, если правило сработало. Empty, если не сработало.
      */
-    Optional<FraudRuleResult> check(TransferCompletedEvent event, Account account, OffsetDateTime now);
+    Optional<FraudRuleResult> check(TransferCompletedEvent event, FraudCheckContext context);
+
+    FraudRuleCost cost();
+
+    /**
+     * Наибольший балл, который может дать правило; по нему {@link FraudRulePipeline} решает,
+     * может ли правило ещё изменить итог.
+     */
+    int maxScore();
 }
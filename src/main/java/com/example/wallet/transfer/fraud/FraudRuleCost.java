@@ -0,0 +1,18 @@
+package com.example.wallet.transfer.fraud;
+
+/**
+ * Стоимость проверки правила; дешёвые правила проверяются первыми.
+ */
+public enum FraudRuleCost {
+
+    /**
+     * Смотрит только на само событие.
+     */
+    CHEAP,
+
+    /**
+     * Требует данных, которые загружаются отдельно и только для переводов, риск которых ещё не определён,
+     * например {@link FraudCheckContext#recentTransfers()}.
+     */
+    EXPENSIVE
+}
@@ -0,0 +1,111 @@
+package com.example.wallet.transfer.fraud;
+
+import com.example.wallet.configuration.FraudProperties;
+import com.example.wallet.event.TransferCompletedEvent;
+import com.example.wallet.transfer.dto.FraudRiskLevel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Проверяет правила по возрастанию стоимости, а внутри одной стоимости — по убыванию максимального балла,
+ * и останавливается, как только оставшиеся правила уже не могут изменить уровень риска.
+ * <p>
+ * Из-за остановки в {@link FraudAssessment#getReasons()} попадают только проверенные правила.
+ * Время каждого правила пишется в таймер {@code wallet.fraud.rule} с тегом {@code rule}, а выставленный балл
+ * (0, если правило не сработало) — в счётчик {@code wallet.fraud.rule.score} с тегами {@code rule} и {@code score}.
+ */
+@Component
+public class FraudRulePipeline {
+
+    private final FraudProperties props;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<FraudRuleCost, List<FraudRule>> rulesByCost = new EnumMap<>(FraudRuleCost.class);
+
+    private final Map<FraudRule, Timer> timers = new HashMap<>();
+
+    /**
+     * Счётчики баллов по правилам. Баллы 0 и {@link FraudRule#maxScore()} регистрируются сразу,
+     * остальные — при первом появлении, дальше счётчик берётся из карты без обращения к реестру.
+     */
+    private final Map<FraudRule, Map<Integer, Counter>> scoreCounters = new HashMap<>();
+
+    private final int totalMaxScore;
+
+    public FraudRulePipeline(List<FraudRule> rules, FraudProperties props, MeterRegistry meterRegistry) {
+        this.props = props;
+        this.meterRegistry = meterRegistry;
+        for (FraudRuleCost cost : FraudRuleCost.values()) {
+            rulesByCost.put(cost, rules.stream()
+                    .filter(rule -> rule.cost() == cost)
+                    .sorted(Comparator.comparingInt(FraudRule::maxScore).reversed())
+                    .toList());
+        }
+        for (FraudRule rule : rules) {
+            timers.put(rule, Timer.builder("wallet.fraud.rule")
+                    .description("Fraud rule evaluation time")
+                    .tag("rule", rule.getClass().getSimpleName())
+                    .register(meterRegistry));
+            Map<Integer, Counter> counters = new ConcurrentHashMap<>();
+            counters.put(0, scoreCounter(rule, 0));
+            counters.put(rule.maxScore(), scoreCounter(rule, rule.maxScore()));
+            scoreCounters.put(rule, counters);
+        }
+        this.totalMaxScore = rules.stream().mapToInt(FraudRule::maxScore).sum();
+    }
+
+    public FraudAssessment start() {
+        return new FraudAssessment(totalMaxScore);
+    }
+
+    /**
+     * Проверяет правила заданной стоимости, пока итог не определён.
+     */
+    public void evaluate(FraudRuleCost cost, TransferCompletedEvent event, FraudCheckContext context,
+                         FraudAssessment assessment) {
+        for (FraudRule rule : rulesByCost.get(cost)) {
+            if (isDecided(assessment)) {
+                return;
+            }
+            Optional<FraudRuleResult> result = timers.get(rule).record(() -> rule.check(event, context));
+            assessment.apply(rule, result);
+            int score = result.map(FraudRuleResult::score).orElse(0);
+            scoreCounters.get(rule).computeIfAbsent(score, s -> scoreCounter(rule, s)).increment();
+        }
+    }
+
+    /**
+     * @return {@code true}, если даже максимальные баллы оставшихся правил не изменят уровень риска
+     */
+    public boolean isDecided(FraudAssessment assessment) {
+        return riskLevel(assessment.getScore()) == riskLevel(assessment.getScore() + assessment.getRemainingMaxScore());
+    }
+
+    public FraudRiskLevel riskLevel(int score) {
+        if (score >= props.getScoreThresholdHigh()) {
+            return FraudRiskLevel.HIGH;
+        } else if (score >= props.getScoreThresholdMedium()) {
+            return FraudRiskLevel.MEDIUM;
+        }
+        return FraudRiskLevel.LOW;
+    }
+
+    private Counter scoreCounter(FraudRule rule, int score) {
+        return Counter.builder("wallet.fraud.rule.score")
+                .description("Fraud rule checks by the score the rule gave")
+                .tag("rule", rule.getClass().getSimpleName())
+                .tag("score", String.valueOf(score))
+                .register(meterRegistry);
+    }
+}
@@ -1,29 +1,21 @@
 package com.example.wallet.transfer.fraud;
 
-import com.example.wallet.account.Account;
 import com.example.wallet.configuration.FraudProperties;
 import com.example.wallet.event.TransferCompletedEvent;
-import com.example.wallet.transfer.TransferRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.time.OffsetDateTime;
 import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class VelocityRule implements FraudRule {
 
-    private final TransferRepository transferRepo;
-
     private final FraudProperties props;
 
     @Override
-    public Optional<FraudRuleResult> check(TransferCompletedEvent event, Account account, OffsetDateTime now) {
-        long recentCount = transferRepo.countRecentTransfers(
-                event.getFromAccountId(),
-                now.minusMinutes(props.getVelocityTimeMinutes())
-        );
+    public Optional<FraudRuleResult> check(TransferCompletedEvent event, FraudCheckContext context) {
+        long recentCount = context.recentTransfers();
 
         if (recentCount > props.getVelocityLimitCount()) {
             String reason = String.format(
@@ -34,4 +26,14 @@ public class VelocityRule implements FraudRule {
         }
         return Optional.empty();
     }
-}
\ No newline at end of file
+
+    @Override
+    public FraudRuleCost cost() {
+        return FraudRuleCost.EXPENSIVE;
+    }
+
+    @Override
+    public int maxScore() {
+        return 40;
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.wallet.transfer.fraud;
+
+import com.example.wallet.configuration.FraudProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Счётчики исходящих переводов по счетам в скользящем окне {@code velocityTimeMinutes}, для {@link VelocityRule}.
+ * <p>
+ * Окно счёта — кольцо корзин по {@code velocityBucketSeconds}, поэтому число учтённых переводов может включать
+ * до одной корзины сверх окна. Хранится не больше {@code velocityMaxAccounts} счетов: при переполнении
+ * вытесняется счёт, дольше всех не получавший переводов, а счета без переводов в окне удаляются при снимке.
+ * <p>
+ * Трекер видит только события, прочитанные этим консьюмером. События ключуются по счёту отправителя
+ * ({@link com.example.wallet.event.TransferProducer}), поэтому все переводы счёта читает один консьюмер.
+ * <p>
+ * Трекер отвечает точно лишь после того, как наблюдал целое окно ({@link #isWarm}). Отсчёт начинается заново,
+ * когда консьюмеру достаются партиции, которых у него не было ({@link #assignPartitions}): их счета
+ * до этого считал другой узел. Чтобы после перезапуска не ждать окно и не пересчитывать его по БД,
+ * состояние периодически и при остановке сохраняется в локальный файл и загружается при старте.
+ * После аварийной остановки переводы с последнего снимка потеряны, поэтому окно отсчитывается от него.
+ */
+@Slf4j
+@Component
+public class VelocityTracker {
+
+    private static final int SNAPSHOT_VERSION = 2;
+
+    private final FraudProperties props;
+
+    private final Clock clock;
+
+    private final Map<UUID, Window> windows;
+
+    /**
+     * С какого момента трекер видел все переводы.
+     */
+    private Instant observedSince;
+
+    /**
+     * Партиции, все события которых трекер видел с {@link #observedSince}.
+     */
+    private Set<Integer> partitions = Set.of();
+
+    public VelocityTracker(FraudProperties props, Clock clock) {
+        this.props = props;
+        this.clock = clock;
+        this.windows = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Window> eldest) {
+                return size() > props.getVelocityMaxAccounts();
+            }
+        };
+        this.observedSince = clock.instant();
+    }
+
+    /**
+     * @param at время перевода; перевод старше того, что помнит окно счёта, не учитывается
+     */
+    public synchronized void record(UUID accountId, Instant at) {
+        windows.computeIfAbsent(accountId, id -> new Window(bucketsPerWindow())).add(bucketOf(at));
+    }
+
+    /**
+     * @return число переводов счёта за окно, заканчивающееся в {@code now}
+     */
+    public synchronized long count(UUID accountId, Instant now) {
+        Window window = windows.get(accountId);
+        return window == null ? 0 : window.count(bucketOf(now));
+    }
+
+    /**
+     * @return {@code true}, если трекер наблюдал переводы всё окно до {@code now} и его счётчикам можно верить
+     */
+    public synchronized boolean isWarm(Instant now) {
+        return !observedSince.isAfter(now.minusSeconds(windowSeconds()));
+    }
+
+    /**
+     * Запоминает текущее назначение партиций. Если среди них есть новые, счётчики их счетов неполны,
+     * и трекер снова считается холодным до конца окна.
+     *
+     * @param assigned все партиции, назначенные консьюмеру после перебалансировки
+     */
+    public synchronized void assignPartitions(Set<Integer> assigned) {
+        if (!partitions.containsAll(assigned)) {
+            observedSince = clock.instant();
+            log.info("Partitions {} assigned, previously {}; velocity counters are cold for one window",
+                    assigned, partitions);
+        }
+        partitions = Set.copyOf(assigned);
+    }
+
+    @PostConstruct
+    public synchronized void restore() {
+        Path path = snapshotPath();
+        if (path == null || !Files.exists(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_VERSION
+                    || in.readInt() != props.getVelocityBucketSeconds()
+                    || in.readInt() != bucketsPerWindow()) {
+                log.info("Ignoring velocity snapshot {} written with different settings", path);
+                return;
+            }
+            boolean clean = in.readBoolean();
+            Instant writtenAt = Instant.ofEpochSecond(in.readLong());
+            Instant snapshotObservedSince = Instant.ofEpochSecond(in.readLong());
+            Set<Integer> snapshotPartitions = new HashSet<>();
+            int partitionCount = in.readInt();
+            for (int i = 0; i < partitionCount; i++) {
+                snapshotPartitions.add(in.readInt());
+            }
+            int accounts = in.readInt();
+            for (int i = 0; i < accounts; i++) {
+                UUID accountId = new UUID(in.readLong(), in.readLong());
+                windows.put(accountId, Window.read(in, bucketsPerWindow()));
+            }
+            observedSince = clean || snapshotObservedSince.isAfter(writtenAt) ? snapshotObservedSince : writtenAt;
+            partitions = Set.copyOf(snapshotPartitions);
+            log.info("Restored velocity counters for {} accounts from {}", accounts, path);
+        } catch (IOException e) {
+            windows.clear();
+            log.warn("Cannot read velocity snapshot {}, starting cold", path, e);
+        }
+    }
+
+    /**
+     * Удаляет счета без переводов в окне и атомарно перезаписывает файл снимка.
+     */
+    @Scheduled(fixedDelayString = "${wallet.fraud.velocity-snapshot-interval-ms}")
+    public void snapshot() {
+        write(false);
+    }
+
+    /**
+     * Пишет снимок при остановке; такой снимок полон, и после него окно не отсчитывается заново.
+     */
+    @PreDestroy
+    public void shutdown() {
+        write(true);
+    }
+
+    private synchronized void write(boolean clean) {
+        long current = bucketOf(clock.instant());
+        windows.values().removeIf(window -> window.count(current) == 0);
+
+        Path path = snapshotPath();
+        if (path == null) {
+            return;
+        }
+        try {
+            Path dir = path.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(props.getVelocityBucketSeconds());
+                out.writeInt(bucketsPerWindow());
+                out.writeBoolean(clean);
+                out.writeLong(clock.instant().getEpochSecond());
+                out.writeLong(observedSince.getEpochSecond());
+                out.writeInt(partitions.size());
+                for (int partition : partitions) {
+                    out.writeInt(partition);
+                }
+                out.writeInt(windows.size());
+                for (Map.Entry<UUID, Window> entry : windows.entrySet()) {
+                    out.writeLong(entry.getKey().getMostSignificantBits());
+                    out.writeLong(entry.getKey().getLeastSignificantBits());
+                    entry.getValue().write(out);
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Cannot write velocity snapshot {}", path, e);
+        }
+    }
+
+    private Path snapshotPath() {
+        return StringUtils.hasText(props.getVelocitySnapshotPath()) ? Path.of(props.getVelocitySnapshotPath()) : null;
+    }
+
+    private long windowSeconds() {
+        return props.getVelocityTimeMinutes() * 60L;
+    }
+
+    private int bucketsPerWindow() {
+        return (int) ((windowSeconds() + props.getVelocityBucketSeconds() - 1) / props.getVelocityBucketSeconds());
+    }
+
+    private long bucketOf(Instant at) {
+        return at.getEpochSecond() / props.getVelocityBucketSeconds();
+    }
+
+    /**
+     * Кольцо корзин: в ячейке {@code bucket % length} лежит номер корзины и число переводов в ней.
+     */
+    private static final class Window {
+
+        private final long[] buckets;
+
+        private final int[] counts;
+
+        private Window(int length) {
+            this.buckets = new long[length];
+            this.counts = new int[length];
+        }
+
+        private void add(long bucket) {
+            int i = (int) (bucket % buckets.length);
+            if (buckets[i] > bucket) {
+                return;
+            }
+            if (buckets[i] != bucket) {
+                buckets[i] = bucket;
+                counts[i] = 0;
+            }
+            counts[i]++;
+        }
+
+        private long count(long currentBucket) {
+            long total = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                if (buckets[i] > currentBucket - buckets.length && buckets[i] <= currentBucket) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            for (int i = 0; i < buckets.length; i++) {
+                out.writeLong(buckets[i]);
+                out.writeInt(counts[i]);
+            }
+        }
+
+        private static Window read(DataInputStream in, int length) throws IOException {
+            Window window = new Window(length);
+            for (int i = 0; i < length; i++) {
+                window.buckets[i] = in.readLong();
+                window.counts[i] = in.readInt();
+            }
+            return window;
+        }
+    }
+}
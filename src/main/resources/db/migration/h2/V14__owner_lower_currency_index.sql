@@ -0,0 +1 @@
+-- H2 не поддерживает индексы по выражениям; поиск по имени здесь идёт без индекса.
@@ -0,0 +1,13 @@
+-- То же, что postgresql/V15: дневные лимиты считаются по дням UTC. H2 при CAST в DATE берёт дату в поясе
+-- сессии и игнорирует AT TIME ZONE, поэтому пояс сессии на время пересчёта переключается на UTC.
+SET TIME ZONE 'UTC';
+
+DELETE FROM daily_transfer_totals;
+
+INSERT INTO daily_transfer_totals (account_id, transfer_date, total)
+SELECT from_account_id, CAST(created_at AS DATE), SUM(amount)
+FROM transfers
+WHERE status = 'COMPLETED'
+GROUP BY from_account_id, CAST(created_at AS DATE);
+
+SET TIME ZONE LOCAL;
@@ -0,0 +1 @@
+CREATE INDEX idx_owner_lower_currency ON accounts (lower(owner_name), currency);
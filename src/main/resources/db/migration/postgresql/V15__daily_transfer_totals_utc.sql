@@ -0,0 +1,9 @@
+-- Дневные лимиты считаются по дням UTC (см. ClockConfiguration), а V8 разложил старые переводы по дням
+-- в часовом поясе сессии БД. Пересчитываем счётчики из завершённых переводов по дате created_at в UTC.
+DELETE FROM daily_transfer_totals;
+
+INSERT INTO daily_transfer_totals (account_id, transfer_date, total)
+SELECT from_account_id, CAST(created_at AT TIME ZONE 'UTC' AS DATE), SUM(amount)
+FROM transfers
+WHERE status = 'COMPLETED'
+GROUP BY from_account_id, CAST(created_at AT TIME ZONE 'UTC' AS DATE);
@@ -0,0 +1,2 @@
+CREATE INDEX idx_transfer_to ON transfers (to_account_id);
+DROP INDEX IF EXISTS idx_transfer_to_created;
\ No newline at end of file
@@ -0,0 +1,11 @@
+ALTER TABLE accounts
+ADD COLUMN balance_slots INT DEFAULT 0 NOT NULL;
+
+CREATE TABLE IF NOT EXISTS account_balance_slots (
+  account_id      UUID NOT NULL REFERENCES accounts(id),
+  slot            INT NOT NULL,
+  balance         NUMERIC(19,2) NOT NULL DEFAULT 0,
+  incoming_count  BIGINT NOT NULL DEFAULT 0,
+  total_received  NUMERIC(19,2) NOT NULL DEFAULT 0,
+  PRIMARY KEY (account_id, slot)
+);
@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS outbox (
+  id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  topic       VARCHAR(255) NOT NULL,
+  message_key VARCHAR(255) NOT NULL,
+  payload     TEXT NOT NULL,
+  created_at  TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  sent_at     TIMESTAMP WITH TIME ZONE,
+  attempts    INT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_outbox_unsent ON outbox (sent_at, id);
@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS call_center_tasks (
+  id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  transfer_id  UUID NOT NULL,
+  risk_level   VARCHAR(10) NOT NULL,
+  priority     SMALLINT NOT NULL,
+  message      TEXT,
+  status       VARCHAR(20) NOT NULL,
+  created_at   TIMESTAMP WITH TIME ZONE NOT NULL,
+  claimed_at   TIMESTAMP WITH TIME ZONE,
+  claimed_by   VARCHAR(100),
+  completed_at TIMESTAMP WITH TIME ZONE,
+  CONSTRAINT uq_call_center_tasks_transfer UNIQUE (transfer_id)
+);
+
+CREATE INDEX idx_call_center_tasks_queue ON call_center_tasks (status, priority, created_at, id);
@@ -0,0 +1,3 @@
+CREATE INDEX idx_transfer_to_created ON transfers (to_account_id, created_at);
+
+DROP INDEX IF EXISTS idx_transfer_to;
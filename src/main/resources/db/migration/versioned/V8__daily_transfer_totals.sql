@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS daily_transfer_totals (
+  account_id      UUID NOT NULL REFERENCES accounts(id),
+  transfer_date   DATE NOT NULL,
+  total           NUMERIC(19,2) NOT NULL DEFAULT 0,
+  PRIMARY KEY (account_id, transfer_date)
+);
+
+INSERT INTO daily_transfer_totals (account_id, transfer_date, total)
+SELECT from_account_id, CAST(created_at AS DATE), SUM(amount)
+FROM transfers
+WHERE status = 'COMPLETED'
+GROUP BY from_account_id, CAST(created_at AS DATE);
@@ -0,0 +1,20 @@
+CREATE TABLE IF NOT EXISTS account_statistics (
+  account_id      UUID PRIMARY KEY REFERENCES accounts(id),
+  incoming_count  BIGINT NOT NULL DEFAULT 0,
+  outgoing_count  BIGINT NOT NULL DEFAULT 0,
+  total_received  NUMERIC(19,2) NOT NULL DEFAULT 0,
+  total_sent      NUMERIC(19,2) NOT NULL DEFAULT 0
+);
+
+INSERT INTO account_statistics (account_id, incoming_count, outgoing_count, total_received, total_sent)
+SELECT a.id,
+       (SELECT COUNT(*) FROM transfers t
+         WHERE t.to_account_id = a.id AND t.status = 'COMPLETED'),
+       (SELECT COUNT(*) FROM transfers t
+         WHERE t.from_account_id = a.id AND t.status = 'COMPLETED'),
+       (SELECT COALESCE(SUM(t.amount), 0) FROM transfers t
+         WHERE t.to_account_id = a.id AND t.status = 'COMPLETED'),
+       (SELECT COALESCE(SUM(t.amount + t.fee), 0) FROM transfers t
+         WHERE t.from_account_id = a.id AND t.status = 'COMPLETED')
+FROM accounts a
+WHERE EXISTS (SELECT 1 FROM transfers t WHERE t.from_account_id = a.id OR t.to_account_id = a.id);
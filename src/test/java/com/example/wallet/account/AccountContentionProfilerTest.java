@@ -0,0 +1,112 @@
+package com.example.wallet.account;
+
+import com.example.wallet.account.AccountContentionProfiler.AccountContention;
+import com.example.wallet.account.AccountContentionProfiler.ContentionReport;
+import com.example.wallet.configuration.AccountLockProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_1;
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_2;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountContentionProfilerTest {
+
+    private static final long MS = 1_000_000;
+
+    private AccountLockProperties properties;
+
+    private AccountContentionProfiler profiler;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AccountLockProperties();
+        properties.setContentionSampleRate(1.0);
+        properties.setContentionTopK(2);
+        profiler = new AccountContentionProfiler(
+                properties, Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void report_ordersByTotalWait() {
+        profiler.recordLock(ACCOUNT_ID_1, 2 * MS);
+        profiler.recordLock(ACCOUNT_ID_2, 3 * MS);
+        profiler.recordLock(ACCOUNT_ID_2, 5 * MS);
+
+        List<AccountContention> accounts = profiler.report(10).current().accounts();
+
+        assertEquals(List.of(ACCOUNT_ID_2, ACCOUNT_ID_1), accounts.stream().map(AccountContention::accountId).toList());
+        AccountContention top = accounts.get(0);
+        assertEquals(2, top.samples());
+        assertEquals(8.0, top.totalWaitMs());
+        assertEquals(5.0, top.waitMaxMs());
+        assertTrue(top.waitP50Ms() >= 3.0 && top.waitP50Ms() <= 5.0);
+        assertEquals(5.0, top.waitP99Ms());
+    }
+
+    @Test
+    void recordLock_evictsLightestAccountAndKeepsItsWeightAsOverestimate() {
+        UUID third = UUID.randomUUID();
+        profiler.recordLock(ACCOUNT_ID_1, 10 * MS);
+        profiler.recordLock(ACCOUNT_ID_2, 1 * MS);
+
+        profiler.recordLock(third, 4 * MS);
+
+        List<AccountContention> accounts = profiler.report(10).current().accounts();
+        assertEquals(List.of(ACCOUNT_ID_1, third), accounts.stream().map(AccountContention::accountId).toList());
+        assertEquals(5.0, accounts.get(1).totalWaitMs());
+        assertEquals(1.0, accounts.get(1).overestimateMs());
+        assertEquals(1, accounts.get(1).samples());
+    }
+
+    @Test
+    void recordLock_skipsUnsampledLocks() {
+        properties.setContentionSampleRate(0);
+
+        profiler.recordLock(ACCOUNT_ID_1, MS);
+
+        assertTrue(profiler.report(10).current().accounts().isEmpty());
+    }
+
+    @Test
+    void recordLock_recordsHoldTimeWhenTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        profiler.recordLock(ACCOUNT_ID_1, MS);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertTrue(profiler.report(10).current().accounts().get(0).avgHoldMs() >= 0);
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+    }
+
+    @Test
+    void rotate_movesCurrentWindowToPrevious() {
+        profiler.recordLock(ACCOUNT_ID_1, MS);
+        assertNull(profiler.report(10).previous());
+
+        profiler.rotate();
+
+        ContentionReport report = profiler.report(10);
+        assertTrue(report.current().accounts().isEmpty());
+        assertEquals(ACCOUNT_ID_1, report.previous().accounts().get(0).accountId());
+    }
+}
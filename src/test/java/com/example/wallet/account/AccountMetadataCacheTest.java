@@ -0,0 +1,99 @@
+package com.example.wallet.account;
+
+import com.example.wallet.configuration.AccountCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_1;
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_2;
+import static com.example.wallet.utils.TestUtils.FIXED_TIME;
+import static com.example.wallet.utils.TestUtils.makeAccount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AccountMetadataCacheTest {
+
+    private static final AccountMetadata JOHN = new AccountMetadata(ACCOUNT_ID_1, "John", "USD", FIXED_TIME);
+
+    @Mock
+    private AccountRepository accountRepo;
+
+    private AccountMetadataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        AccountCacheProperties properties = new AccountCacheProperties();
+        properties.setMetadataMaxSize(100);
+        properties.setNameTtlMs(60_000);
+        cache = new AccountMetadataCache(accountRepo, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getAll_loadsOnlyMissingAccountsOnce() {
+        when(accountRepo.findMetadataByIds(Set.of(ACCOUNT_ID_1, ACCOUNT_ID_2))).thenReturn(List.of(JOHN));
+        when(accountRepo.findMetadataByIds(Set.of(ACCOUNT_ID_2))).thenReturn(List.of());
+
+        assertEquals(Map.of(ACCOUNT_ID_1, JOHN), cache.getAll(List.of(ACCOUNT_ID_1, ACCOUNT_ID_2)));
+        assertEquals(Map.of(ACCOUNT_ID_1, JOHN), cache.getAll(List.of(ACCOUNT_ID_1, ACCOUNT_ID_2)));
+
+        verify(accountRepo).findMetadataByIds(Set.of(ACCOUNT_ID_1, ACCOUNT_ID_2));
+        verify(accountRepo).findMetadataByIds(Set.of(ACCOUNT_ID_2));
+    }
+
+    @Test
+    void findIdByName_ignoresCaseAndCachesHits() {
+        when(accountRepo.findIdByNameAndCurrency("John", "USD")).thenReturn(Optional.of(ACCOUNT_ID_1));
+
+        assertEquals(Optional.of(ACCOUNT_ID_1), cache.findIdByName("John", "USD"));
+        assertEquals(Optional.of(ACCOUNT_ID_1), cache.findIdByName("JOHN", "USD"));
+
+        verify(accountRepo, times(1)).findIdByNameAndCurrency("John", "USD");
+    }
+
+    @Test
+    void findIdByName_missingAccountNotCached() {
+        when(accountRepo.findIdByNameAndCurrency("John", "USD"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(ACCOUNT_ID_1));
+
+        assertEquals(Optional.empty(), cache.findIdByName("John", "USD"));
+        assertEquals(Optional.of(ACCOUNT_ID_1), cache.findIdByName("John", "USD"));
+    }
+
+    @Test
+    void evictAfterCommit_outsideTransaction_evictsImmediately() {
+        when(accountRepo.findIdByNameAndCurrency("John", "USD")).thenReturn(Optional.of(ACCOUNT_ID_1));
+        cache.findIdByName("John", "USD");
+
+        cache.evictAfterCommit(makeAccount(ACCOUNT_ID_1, "John", "USD", 0));
+        cache.findIdByName("John", "USD");
+
+        verify(accountRepo, times(2)).findIdByNameAndCurrency("John", "USD");
+    }
+
+    @Test
+    void findIdByName_expiredMappingResolvedAgain() {
+        AccountCacheProperties properties = new AccountCacheProperties();
+        properties.setMetadataMaxSize(100);
+        properties.setNameTtlMs(0);
+        AccountMetadataCache expiringCache = new AccountMetadataCache(accountRepo, properties, new SimpleMeterRegistry());
+        when(accountRepo.findIdByNameAndCurrency("John", "USD"))
+                .thenReturn(Optional.of(ACCOUNT_ID_1))
+                .thenReturn(Optional.of(ACCOUNT_ID_2));
+
+        assertEquals(Optional.of(ACCOUNT_ID_1), expiringCache.findIdByName("John", "USD"));
+        assertEquals(Optional.of(ACCOUNT_ID_2), expiringCache.findIdByName("John", "USD"));
+    }
+}
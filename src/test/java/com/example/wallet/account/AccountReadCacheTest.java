@@ -0,0 +1,87 @@
+package com.example.wallet.account;
+
+import com.example.wallet.account.dto.AccountResponse;
+import com.example.wallet.configuration.AccountCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_1;
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_2;
+import static com.example.wallet.utils.TestUtils.FIXED_TIME;
+import static com.example.wallet.utils.TestUtils.money;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AccountReadCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private AccountReadCache readCache;
+
+    @BeforeEach
+    void setUp() {
+        AccountCacheProperties properties = new AccountCacheProperties();
+        properties.setReadMaxSize(100);
+        properties.setReadTtlMs(60_000);
+        readCache = new AccountReadCache(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private AccountResponse read() {
+        return readCache.get(ACCOUNT_ID_1, id -> {
+            loads.incrementAndGet();
+            return new AccountResponse(id, "John", "USD", money(100), FIXED_TIME);
+        });
+    }
+
+    @Test
+    void get_loadsOnceAndRecordsHits() {
+        read();
+        read();
+
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "account.read").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void evictAfterCommit_keepsEntryUntilTransactionCompletes() {
+        read();
+        TransactionSynchronizationManager.initSynchronization();
+
+        readCache.evictAfterCommit(ACCOUNT_ID_1);
+        readCache.evictAfterCommit(ACCOUNT_ID_2);
+        read();
+        assertEquals(1, loads.get());
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        read();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictAfterCommit_evictsImmediatelyOutsideTransaction() {
+        read();
+
+        readCache.evictAfterCommit(ACCOUNT_ID_1);
+        read();
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.wallet.account;
 
+import com.example.wallet.account.dto.AccountPage;
 import com.example.wallet.account.dto.AccountResponse;
 import com.example.wallet.account.dto.AccountStatisticsResponse;
 import com.example.wallet.account.dto.BalanceResponse;
-import com.example.wallet.transfer.TransferRepository;
+import com.example.wallet.configuration.AccountCacheProperties;
+import com.example.wallet.configuration.AccountListProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -15,6 +19,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
@@ -36,6 +41,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -46,14 +52,55 @@ class AccountServiceTest {
     private AccountRepository accountRepo;
 
     @Mock
-    private TransferRepository transferRepo;
+    private AccountStatisticsRepository statisticsRepo;
+
+    @Mock
+    private AccountBalanceSlotRepository slotRepo;
+
+    @Mock
+    private AccountStatisticsService statisticsService;
+
+    @Mock
+    private HotAccountRegistry hotAccounts;
+
+    @Mock
+    private AccountMetadataCache metadataCache;
+
+    @Mock
+    private AccountJdbcRepository accountJdbcRepo;
 
     @InjectMocks
     private AccountService accountService;
 
+    @BeforeEach
+    void setUp() {
+        AccountCacheProperties cacheProperties = new AccountCacheProperties();
+        cacheProperties.setReadMaxSize(100);
+        cacheProperties.setReadTtlMs(60_000);
+        AccountReadCache readCache = new AccountReadCache(cacheProperties, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(accountService, "readCache", readCache);
+
+        AccountBalanceService balances = new AccountBalanceService(slotRepo, statisticsService, readCache);
+        ReflectionTestUtils.setField(accountService, "balances", balances);
+
+        AccountListProperties listProperties = new AccountListProperties();
+        listProperties.setDefaultPageSize(2);
+        listProperties.setMaxPageSize(3);
+        ReflectionTestUtils.setField(accountService, "listProperties", listProperties);
+    }
+
     @Captor
     private ArgumentCaptor<Account> accountCaptor;
 
+    @Captor
+    private ArgumentCaptor<List<AccountBalanceSlot>> slotsCaptor;
+
+    private static AccountBalanceSlot makeSlot(UUID accountId, int slot, double balance) {
+        AccountBalanceSlot result = new AccountBalanceSlot(accountId, slot);
+        result.setBalance(money(balance));
+        return result;
+    }
+
     // ==================== CREATE ====================
 
     @Test
@@ -116,6 +163,21 @@ class AccountServiceTest {
         assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
         assertNotNull(ex.getReason());
     }
+    @Test
+    void get_servesRepeatedReadsFromCacheUntilBalanceChanges() {
+        Account acc = makeAccount(DEFAULT_ACCOUNT_ID, "John", "USD", 100);
+        when(accountRepo.findById(acc.getId())).thenReturn(Optional.of(acc));
+        when(accountRepo.findByIdForUpdate(acc.getId())).thenReturn(Optional.of(acc));
+
+        accountService.get(acc.getId());
+        accountService.getBalance(acc.getId());
+        accountService.deposit(acc.getId(), money(50));
+        BalanceResponse afterDeposit = accountService.getBalance(acc.getId());
+
+        assertEquals(money(150), afterDeposit.getBalance());
+        verify(accountRepo, times(2)).findById(acc.getId());
+    }
+
     // ==================== GET BALANCE ====================
 
     @Test
@@ -175,31 +237,70 @@ class AccountServiceTest {
         assertNotNull(ex.getReason());
     }
 
+    @Test
+    void deposit_hotAccount_creditsSlotWithoutLockingAccount() {
+        Account acc = makeAccount(DEFAULT_ACCOUNT_ID, "John", "USD", 100);
+        acc.setBalanceSlots(1);
+        AccountBalanceSlot slot = makeSlot(acc.getId(), 0, 0);
+        when(hotAccounts.isHot(acc.getId())).thenReturn(true);
+        when(accountRepo.findById(acc.getId())).thenReturn(Optional.of(acc));
+        when(slotRepo.findByIdForUpdate(slot.getId())).thenReturn(Optional.of(slot));
+        when(slotRepo.sumBalance(acc.getId())).thenReturn(money(50));
+
+        AccountResponse response = accountService.deposit(acc.getId(), money(50));
+
+        assertEquals(money(100), acc.getBalance());
+        assertEquals(money(50), slot.getBalance());
+        assertEquals(money(150), response.getBalance());
+        verify(accountRepo, never()).findByIdForUpdate(any());
+    }
+
     // ==================== LIST ====================
 
     @Test
-    void list_returnsAllAccounts() {
-        List<Account> accounts = List.of(
-                makeAccount(ACCOUNT_ID_1, "John", "USD", 0),
-                makeAccount(ACCOUNT_ID_2, "Jane", "EUR", 0)
-        );
-        when(accountRepo.findAll()).thenReturn(accounts);
+    void list_returnsFirstPageWithCursorToNext() {
+        when(accountJdbcRepo.findPage(null, 3)).thenReturn(List.of(
+                makeResponse(ACCOUNT_ID_1, "John"),
+                makeResponse(ACCOUNT_ID_2, "Jane"),
+                makeResponse(DEFAULT_ACCOUNT_ID, "Jack")
+        ));
 
-        List<AccountResponse> response = accountService.list();
+        AccountPage page = accountService.list(null, null);
 
-        assertEquals(2, response.size());
-        assertEquals("John", response.get(0).getOwnerName());
-        assertEquals("Jane", response.get(1).getOwnerName());
+        assertEquals(List.of("John", "Jane"), page.getItems().stream().map(AccountResponse::getOwnerName).toList());
+        assertEquals(ACCOUNT_ID_2, AccountService.decodeCursor(page.getNextCursor()));
     }
 
     @Test
-    void list_returnsEmptyList() {
-        when(accountRepo.findAll()).thenReturn(List.of());
+    void list_continuesAfterCursorAndEndsWithoutNextCursor() {
+        when(accountJdbcRepo.findPage(ACCOUNT_ID_1, 3)).thenReturn(List.of(makeResponse(ACCOUNT_ID_2, "Jane")));
 
-        List<AccountResponse> response = accountService.list();
+        AccountPage page = accountService.list(AccountService.encodeCursor(ACCOUNT_ID_1), null);
 
-        assertNotNull(response);
-        assertTrue(response.isEmpty());
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void list_capsPageSize() {
+        when(accountJdbcRepo.findPage(null, 4)).thenReturn(List.of());
+
+        AccountPage page = accountService.list(null, 1000);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void list_rejectsMalformedCursor() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> accountService.list("not a cursor", null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+
+    private static AccountResponse makeResponse(UUID id, String ownerName) {
+        return new AccountResponse(id, ownerName, "USD", money(0), FIXED_TIME);
     }
 
     // ==================== GET BY NAME ====================
@@ -207,7 +308,8 @@ class AccountServiceTest {
     @Test
     void getByName_found() {
         Account acc = makeAccount(DEFAULT_ACCOUNT_ID, "John", "USD", 0);
-        when(accountRepo.findByOwnerNameIgnoreCaseAndCurrency("John", "USD")).thenReturn(Optional.of(acc));
+        when(metadataCache.findIdByName("John", "USD")).thenReturn(Optional.of(acc.getId()));
+        when(accountRepo.findById(acc.getId())).thenReturn(Optional.of(acc));
 
         AccountResponse response = accountService.getByName("John", "USD");
 
@@ -216,7 +318,7 @@ class AccountServiceTest {
 
     @Test
     void getByName_notFound() {
-        when(accountRepo.findByOwnerNameIgnoreCaseAndCurrency("John", "USD")).thenReturn(Optional.empty());
+        when(metadataCache.findIdByName("John", "USD")).thenReturn(Optional.empty());
 
         ResponseStatusException ex = assertThrows(
                 ResponseStatusException.class,
@@ -230,7 +332,8 @@ class AccountServiceTest {
     @Test
     void depositByName_success() {
         Account acc = makeAccount(DEFAULT_ACCOUNT_ID, "John", "USD", 100);
-        when(accountRepo.findByNameAndCurrencyForUpdate("John", "USD")).thenReturn(Optional.of(acc));
+        when(metadataCache.findIdByName("John", "USD")).thenReturn(Optional.of(acc.getId()));
+        when(accountRepo.findByIdForUpdate(acc.getId())).thenReturn(Optional.of(acc));
 
         accountService.depositByName("John", "USD", money(50));
 
@@ -239,7 +342,7 @@ class AccountServiceTest {
 
     @Test
     void depositByName_notFound() {
-        when(accountRepo.findByNameAndCurrencyForUpdate("John", "USD")).thenReturn(Optional.empty());
+        when(metadataCache.findIdByName("John", "USD")).thenReturn(Optional.empty());
         BigDecimal amount = money(50);
 
         ResponseStatusException ex = assertThrows(
@@ -276,6 +379,24 @@ class AccountServiceTest {
         assertTrue(ex.getReason().contains("Insufficient funds"));
     }
 
+    @Test
+    void withdraw_hotAccount_sweepsSlotsWhenShort() {
+        Account acc = makeAccount(DEFAULT_ACCOUNT_ID, "John", "USD", 10);
+        acc.setBalanceSlots(2);
+        AccountBalanceSlot first = makeSlot(acc.getId(), 0, 30);
+        AccountBalanceSlot second = makeSlot(acc.getId(), 1, 40);
+        when(accountRepo.findByIdForUpdate(acc.getId())).thenReturn(Optional.of(acc));
+        when(slotRepo.findAllByAccountIdForUpdate(acc.getId())).thenReturn(List.of(first, second));
+        when(slotRepo.sumBalance(acc.getId())).thenReturn(money(0));
+
+        AccountResponse response = accountService.withdraw(acc.getId(), money(50));
+
+        assertEquals(money(30), acc.getBalance());
+        assertEquals(money(0), first.getBalance());
+        assertEquals(money(0), second.getBalance());
+        assertEquals(money(30), response.getBalance());
+    }
+
     // ==================== DELETE ====================
 
     @Test
@@ -286,6 +407,7 @@ class AccountServiceTest {
         accountService.delete(acc.getId());
 
         verify(accountRepo).delete(acc);
+        verify(metadataCache).evictAfterCommit(acc);
     }
 
     @Test
@@ -302,6 +424,42 @@ class AccountServiceTest {
         verify(accountRepo, never()).delete(any());
     }
 
+    // ==================== BALANCE SLOTS ====================
+
+    @Test
+    void setBalanceSlots_createsMissingSlots() {
+        Account acc = makeAccount(DEFAULT_ACCOUNT_ID, "John", "USD", 100);
+        acc.setBalanceSlots(1);
+        when(accountRepo.findByIdForUpdate(acc.getId())).thenReturn(Optional.of(acc));
+        when(slotRepo.sumBalance(acc.getId())).thenReturn(money(0));
+
+        accountService.setBalanceSlots(acc.getId(), 3);
+
+        verify(slotRepo).saveAll(slotsCaptor.capture());
+        assertThat(slotsCaptor.getValue())
+                .extracting(slot -> slot.getId().getSlot())
+                .containsExactly(1, 2);
+        assertEquals(3, acc.getBalanceSlots());
+        verify(hotAccounts).registerAfterCommit(acc.getId());
+    }
+
+    @Test
+    void setBalanceSlots_decrease_badRequest() {
+        Account acc = makeAccount(DEFAULT_ACCOUNT_ID, "John", "USD", 100);
+        acc.setBalanceSlots(4);
+        UUID id = acc.getId();
+        when(accountRepo.findByIdForUpdate(id)).thenReturn(Optional.of(acc));
+
+        ResponseStatusException ex = assertThrows(
+                ResponseStatusException.class,
+                () -> accountService.setBalanceSlots(id, 2)
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verify(slotRepo, never()).saveAll(any());
+        verify(hotAccounts, never()).registerAfterCommit(any());
+    }
+
     // ==================== GET STATISTICS ====================
 
     @Test
@@ -309,11 +467,14 @@ class AccountServiceTest {
         Account acc = makeAccount(DEFAULT_ACCOUNT_ID, "John", "USD", 500);
         UUID id = acc.getId();
 
+        AccountStatistics statistics = new AccountStatistics(id);
+        statistics.setIncomingCount(5L);
+        statistics.setOutgoingCount(3L);
+        statistics.setTotalReceived(new BigDecimal("1000.00"));
+        statistics.setTotalSent(new BigDecimal("500.00"));
+
         when(accountRepo.findById(id)).thenReturn(Optional.of(acc));
-        when(transferRepo.countIncomingTransfersById(id)).thenReturn(5L);
-        when(transferRepo.countOutgoingTransfersById(id)).thenReturn(3L);
-        when(transferRepo.sumIncomingTransfers(id)).thenReturn(new BigDecimal("1000.00"));
-        when(transferRepo.sumOutgoingTransfers(id)).thenReturn(new BigDecimal("500.00"));
+        when(statisticsRepo.findById(id)).thenReturn(Optional.of(statistics));
 
         AccountStatisticsResponse stats = accountService.getStatistics(id);
 
@@ -323,4 +484,47 @@ class AccountServiceTest {
         assertEquals(money(1000), stats.getTotalReceived());
         assertEquals(money(500), stats.getTotalSent());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getStatistics_noTransfers() {
+        Account acc = makeAccount(DEFAULT_ACCOUNT_ID, "John", "USD", 500);
+        UUID id = acc.getId();
+
+        when(accountRepo.findById(id)).thenReturn(Optional.of(acc));
+        when(statisticsRepo.findById(id)).thenReturn(Optional.empty());
+
+        AccountStatisticsResponse stats = accountService.getStatistics(id);
+
+        assertEquals(0L, stats.getIncomingTransfersCount());
+        assertEquals(0L, stats.getOutgoingTransfersCount());
+        assertEquals(money(0), stats.getTotalReceived());
+        assertEquals(money(0), stats.getTotalSent());
+    }
+
+    @Test
+    void getStatistics_hotAccount_subtractsCancelledTransferFromSlots() {
+        Account acc = makeAccount(DEFAULT_ACCOUNT_ID, "John", "USD", 0);
+        acc.setBalanceSlots(1);
+        UUID id = acc.getId();
+        AccountBalanceSlot slot = makeSlot(id, 0, 0);
+        slot.setIncomingCount(1);
+        slot.setTotalReceived(money(100));
+
+        when(statisticsRepo.findById(ACCOUNT_ID_1)).thenReturn(Optional.empty());
+        when(statisticsRepo.findById(id)).thenReturn(Optional.empty());
+        new AccountStatisticsService(statisticsRepo).revertTransfer(ACCOUNT_ID_1, id, money(100), money(1));
+
+        ArgumentCaptor<AccountStatistics> saved = ArgumentCaptor.forClass(AccountStatistics.class);
+        verify(statisticsRepo, times(2)).save(saved.capture());
+        AccountStatistics recipient = saved.getAllValues().get(1);
+        when(statisticsRepo.findById(id)).thenReturn(Optional.of(recipient));
+        when(accountRepo.findById(id)).thenReturn(Optional.of(acc));
+        when(slotRepo.findAllByIdAccountId(id)).thenReturn(List.of(slot));
+        when(slotRepo.sumBalance(id)).thenReturn(money(0));
+
+        AccountStatisticsResponse stats = accountService.getStatistics(id);
+
+        assertEquals(0L, stats.getIncomingTransfersCount());
+        assertEquals(money(0), stats.getTotalReceived());
+    }
+}
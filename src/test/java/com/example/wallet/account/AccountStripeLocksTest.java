@@ -0,0 +1,103 @@
+package com.example.wallet.account;
+
+import com.example.wallet.configuration.AccountLockProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_1;
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_2;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AccountStripeLocksTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AccountLockProperties properties;
+
+    private AccountStripeLocks stripeLocks;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AccountLockProperties();
+        properties.setStriped(true);
+        properties.setStripes(16);
+        properties.setAcquireTimeoutMs(50);
+        stripeLocks = new AccountStripeLocks(properties, meterRegistry);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void lock_disabled_doesNothing() {
+        properties.setStriped(false);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertDoesNotThrow(() -> stripeLocks.lock(List.of(ACCOUNT_ID_1)));
+
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @Test
+    void lock_heldUntilTransactionCompletes() throws Exception {
+        stripeLocks.lock(List.of(ACCOUNT_ID_1, ACCOUNT_ID_2));
+
+        Throwable blocked = lockInOtherTransaction();
+        ResponseStatusException ex = assertInstanceOf(ResponseStatusException.class, blocked);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+        assertEquals(1, meterRegistry.get("wallet.account.stripe.wait").tag("outcome", "timeout").timer().count());
+
+        completeTransaction();
+
+        assertNull(lockInOtherTransaction());
+        assertEquals(2, meterRegistry.get("wallet.account.stripe.wait").tag("outcome", "acquired").timer().count());
+    }
+
+    @Test
+    void lock_outsideTransaction_fails() {
+        TransactionSynchronizationManager.clearSynchronization();
+        List<UUID> ids = List.of(ACCOUNT_ID_1);
+
+        assertThrows(IllegalStateException.class, () -> stripeLocks.lock(ids));
+
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private Throwable lockInOtherTransaction() throws InterruptedException, ExecutionException {
+        return CompletableFuture.supplyAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                stripeLocks.lock(List.of(ACCOUNT_ID_2));
+                completeTransaction();
+                return null;
+            } catch (ResponseStatusException e) {
+                return (Throwable) e;
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }).get();
+    }
+
+    private static void completeTransaction() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+}
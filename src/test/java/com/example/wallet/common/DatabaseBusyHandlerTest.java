@@ -0,0 +1,37 @@
+package com.example.wallet.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DatabaseBusyHandlerTest {
+
+    @Test
+    void handleNoConnection_respondsServiceUnavailable() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new DatabaseBusyHandler().handleNoConnection(
+                new CannotCreateTransactionException("Could not open JPA EntityManager",
+                        new SQLTransientConnectionException("Connection is not available, request timed out")),
+                response
+        );
+
+        assertEquals(503, response.getStatus());
+    }
+
+    @Test
+    void handleNoConnection_databaseUnreachable_rethrows() {
+        CannotCreateTransactionException e = new CannotCreateTransactionException("Could not open JPA EntityManager",
+                new SQLException("Connection refused", "08001"));
+
+        assertSame(e, assertThrows(CannotCreateTransactionException.class,
+                () -> new DatabaseBusyHandler().handleNoConnection(e, new MockHttpServletResponse())));
+    }
+}
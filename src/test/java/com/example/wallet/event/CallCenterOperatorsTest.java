@@ -0,0 +1,97 @@
+package com.example.wallet.event;
+
+import com.example.wallet.configuration.CallCenterProperties;
+import com.example.wallet.event.CallCenterTaskRepository.Backlog;
+import com.example.wallet.event.CallCenterTaskRepository.CallCenterTask;
+import com.example.wallet.transfer.dto.FraudRiskLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.wallet.utils.TestUtils.FIXED_TIME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CallCenterOperatorsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private CallCenterTaskRepository taskRepository;
+
+    private CallCenterOperators operators;
+
+    @BeforeEach
+    void setUp() {
+        CallCenterProperties properties = new CallCenterProperties();
+        properties.setOperators(1);
+        properties.setCallDurationMs(0);
+        properties.setIdlePollMs(1);
+        properties.setClaimTimeoutMs(60_000);
+        properties.setRetentionHours(168);
+
+        Clock clock = Clock.fixed(FIXED_TIME.toInstant(), FIXED_TIME.getOffset());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        operators = new CallCenterOperators(taskRepository, properties, transactionTemplate, clock, meterRegistry);
+    }
+
+    @Test
+    void handleNext_callsAndCompletesClaimedTask() {
+        CallCenterTask task = new CallCenterTask(
+                7L, UUID.randomUUID(), FraudRiskLevel.HIGH, "call", FIXED_TIME.minusMinutes(2)
+        );
+        when(taskRepository.claimNext(eq("op-1"), any())).thenReturn(Optional.of(task));
+
+        assertTrue(operators.handleNext("op-1"));
+
+        verify(taskRepository).complete(7L, FIXED_TIME);
+        assertEquals(120.0, meterRegistry.get("wallet.call-center.wait").tag("risk", "HIGH").timer()
+                .totalTime(TimeUnit.SECONDS));
+    }
+
+    @Test
+    void handleNext_emptyQueue() {
+        when(taskRepository.claimNext(eq("op-1"), any())).thenReturn(Optional.empty());
+
+        assertFalse(operators.handleNext("op-1"));
+
+        verify(taskRepository, never()).complete(anyLong(), any());
+    }
+
+    @Test
+    void maintain_requeuesStaleTasksAndUpdatesGauges() {
+        when(taskRepository.findBacklog()).thenReturn(new Backlog(3, FIXED_TIME.minusSeconds(90)));
+
+        operators.maintain();
+
+        verify(taskRepository).requeueStale(FIXED_TIME.minusMinutes(1));
+        assertEquals(3.0, meterRegistry.get("wallet.call-center.queue.depth").gauge().value());
+        assertEquals(90.0, meterRegistry.get("wallet.call-center.queue.oldest-wait").gauge().value());
+    }
+
+    @Test
+    void deleteDone_deletesTasksCompletedBeforeRetention() {
+        operators.deleteDone();
+
+        verify(taskRepository).deleteDoneBefore(FIXED_TIME.minusHours(168));
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.wallet.event;
+
+import com.example.wallet.configuration.OutboxProperties;
+import com.example.wallet.event.OutboxRepository.Backlog;
+import com.example.wallet.event.OutboxRepository.OutboxMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static com.example.wallet.utils.TestUtils.FIXED_TIME;
+import static com.example.wallet.utils.TestUtils.money;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final UUID FIRST = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private static final UUID SECOND = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private KafkaTemplate<String, TransferCompletedEvent> kafkaTemplate;
+
+    private OutboxProperties properties;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OutboxProperties();
+        properties.setBatchSize(2);
+        properties.setSendTimeoutMs(1000);
+        properties.setRetentionHours(24);
+        relay = new OutboxRelay(
+                outboxRepository,
+                kafkaTemplate,
+                objectMapper,
+                properties,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                Clock.fixed(FIXED_TIME.toInstant(), FIXED_TIME.getOffset()),
+                meterRegistry
+        );
+    }
+
+    @Test
+    void relay_fullBatchSent_marksSentAndPollsAgain() throws Exception {
+        when(outboxRepository.lockUnsent(2))
+                .thenReturn(List.of(message(1, FIRST), message(2, SECOND)))
+                .thenReturn(List.of());
+        when(kafkaTemplate.send(eq(TransferProducer.TOPIC), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(outboxRepository.findBacklog()).thenReturn(new Backlog(0, null));
+
+        relay.relay();
+
+        verify(kafkaTemplate).send(TransferProducer.TOPIC, FIRST.toString(), event(FIRST));
+        verify(kafkaTemplate).send(TransferProducer.TOPIC, SECOND.toString(), event(SECOND));
+        verify(outboxRepository).markSent(List.of(1L, 2L), FIXED_TIME);
+        verify(outboxRepository, never()).markFailed(any());
+        verify(outboxRepository, times(2)).lockUnsent(anyInt());
+        assertEquals(2, meterRegistry.get("wallet.outbox.sent").counter().count());
+    }
+
+    @Test
+    void relay_failedSend_keepsMessageForNextRun() throws Exception {
+        when(outboxRepository.lockUnsent(2)).thenReturn(List.of(message(1, FIRST), message(2, SECOND)));
+        when(kafkaTemplate.send(TransferProducer.TOPIC, FIRST.toString(), event(FIRST)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaTemplate.send(TransferProducer.TOPIC, SECOND.toString(), event(SECOND)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(outboxRepository.findBacklog()).thenReturn(new Backlog(1, FIXED_TIME));
+
+        relay.relay();
+
+        verify(outboxRepository).markSent(List.of(1L), FIXED_TIME);
+        verify(outboxRepository).markFailed(List.of(2L));
+        verify(outboxRepository, times(1)).lockUnsent(anyInt());
+        assertEquals(1, meterRegistry.get("wallet.outbox.send.failures").counter().count());
+    }
+
+    @Test
+    void relay_updatesDepthAndLag() {
+        when(outboxRepository.lockUnsent(2)).thenReturn(List.of());
+        when(outboxRepository.findBacklog()).thenReturn(new Backlog(7, FIXED_TIME.minusSeconds(30)));
+
+        relay.relay();
+
+        assertEquals(7, meterRegistry.get("wallet.outbox.depth").gauge().value());
+        assertEquals(30, meterRegistry.get("wallet.outbox.lag").gauge().value());
+    }
+
+    @Test
+    void deleteSent_removesMessagesOlderThanRetention() {
+        relay.deleteSent();
+
+        verify(outboxRepository).deleteSentBefore(FIXED_TIME.minusHours(24));
+    }
+
+    private OutboxMessage message(long id, UUID transferId) throws Exception {
+        return new OutboxMessage(
+                id,
+                TransferProducer.TOPIC,
+                transferId.toString(),
+                objectMapper.writeValueAsString(event(transferId)),
+                FIXED_TIME
+        );
+    }
+
+    private static TransferCompletedEvent event(UUID transferId) {
+        return TransferCompletedEvent.builder()
+                .transferId(transferId)
+                .fromAccountId(FIRST)
+                .toAccountId(SECOND)
+                .amount(money(10))
+                .build();
+    }
+}
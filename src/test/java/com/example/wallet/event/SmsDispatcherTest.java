@@ -0,0 +1,135 @@
+package com.example.wallet.event;
+
+import com.example.wallet.configuration.SmsProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SmsDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicBoolean paused = new AtomicBoolean();
+
+    private final CountDownLatch gatewayRelease = new CountDownLatch(1);
+
+    private final AtomicInteger gatewayCalls = new AtomicInteger();
+
+    private MessageListenerContainer container;
+
+    private SmsDispatcher dispatcher;
+
+    private volatile boolean gatewayFails;
+
+    @BeforeEach
+    void setUp() {
+        SmsProperties properties = new SmsProperties();
+        properties.setMaxInFlight(2);
+        properties.setMaxAttempts(2);
+        properties.setRetryBackoffMs(1);
+
+        container = mock(MessageListenerContainer.class);
+        when(container.isPauseRequested()).thenAnswer(inv -> paused.get());
+        doAnswer(inv -> {
+            paused.set(true);
+            return null;
+        }).when(container).pause();
+        doAnswer(inv -> {
+            paused.set(false);
+            return null;
+        }).when(container).resume();
+        KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+        when(registry.getListenerContainer(SmsDispatcher.LISTENER_ID)).thenReturn(container);
+
+        SmsGateway gateway = event -> {
+            gatewayCalls.incrementAndGet();
+            try {
+                gatewayRelease.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (gatewayFails) {
+                throw new IllegalStateException("gateway down");
+            }
+        };
+        dispatcher = new SmsDispatcher(gateway, properties, registry, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        gatewayRelease.countDown();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatch_returnsBeforeDelivery_andAcksAfter() {
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        dispatcher.dispatch(event(), ack);
+
+        verify(ack, never()).acknowledge();
+        assertFalse(paused.get());
+
+        gatewayRelease.countDown();
+
+        verify(ack, timeout(1000)).acknowledge();
+        assertEquals(1, meterRegistry.get("wallet.sms.delivery").tag("outcome", "delivered").timer().count());
+    }
+
+    @Test
+    void dispatch_pausesAtLimit_andResumesWhenDrained() {
+        Acknowledgment first = mock(Acknowledgment.class);
+        Acknowledgment second = mock(Acknowledgment.class);
+
+        dispatcher.dispatch(event(), first);
+        assertFalse(paused.get());
+        dispatcher.dispatch(event(), second);
+        assertTrue(paused.get());
+
+        gatewayRelease.countDown();
+
+        verify(first, timeout(1000)).acknowledge();
+        verify(second, timeout(1000)).acknowledge();
+        verify(container, timeout(1000)).resume();
+        assertFalse(paused.get());
+    }
+
+    @Test
+    void dispatch_acksFailedDeliveryAfterRetries() {
+        gatewayFails = true;
+        gatewayRelease.countDown();
+        Acknowledgment ack = mock(Acknowledgment.class);
+
+        dispatcher.dispatch(event(), ack);
+
+        verify(ack, timeout(1000)).acknowledge();
+        assertEquals(2, gatewayCalls.get());
+        assertEquals(1, meterRegistry.get("wallet.sms.delivery").tag("outcome", "failed").timer().count());
+    }
+
+    private TransferCompletedEvent event() {
+        return TransferCompletedEvent.builder()
+                .transferId(UUID.randomUUID())
+                .build();
+    }
+}
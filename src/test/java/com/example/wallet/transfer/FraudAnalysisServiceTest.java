@@ -0,0 +1,199 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.account.AccountMetadata;
+import com.example.wallet.account.AccountMetadataCache;
+import com.example.wallet.configuration.FraudProperties;
+import com.example.wallet.event.TransferCompletedEvent;
+import com.example.wallet.transfer.dto.FraudAnalysisResult;
+import com.example.wallet.transfer.dto.FraudRiskLevel;
+import com.example.wallet.transfer.fraud.AccountAgeRule;
+import com.example.wallet.transfer.fraud.AmountRule;
+import com.example.wallet.transfer.fraud.FraudRule;
+import com.example.wallet.transfer.fraud.FraudRulePipeline;
+import com.example.wallet.transfer.fraud.VelocityRule;
+import com.example.wallet.transfer.fraud.VelocityTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_1;
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_2;
+import static com.example.wallet.utils.TestUtils.FIXED_TIME;
+import static com.example.wallet.utils.TestUtils.money;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FraudAnalysisServiceTest {
+
+    private static final String JOHN = "John";
+
+    private static final String USD = "USD";
+
+    @Spy
+    private Clock clock = Clock.fixed(FIXED_TIME.toInstant(), ZoneOffset.UTC);
+
+    @Mock
+    private TransferRepository transferRepo;
+
+    @Mock
+    private AccountMetadataCache metadataCache;
+
+    @Mock
+    private VelocityTracker velocityTracker;
+
+    @InjectMocks
+    private FraudAnalysisService fraudAnalysisService;
+
+    @BeforeEach
+    void setUp() {
+        TransferMetrics transferMetrics = new TransferMetrics(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(fraudAnalysisService, "transferMetrics", transferMetrics);
+    }
+
+    @Test
+    void analyzeFraud_legacyEvents_coldTracker_loadsSendersAndVelocityOnce() {
+        useFraudRules();
+        UUID smallId = new UUID(1, 1);
+        UUID largeId = new UUID(2, 2);
+        UUID orphanId = new UUID(3, 3);
+        List<TransferCompletedEvent> events = List.of(
+                legacyEvent(smallId, ACCOUNT_ID_1, ACCOUNT_ID_2, money(10)),
+                legacyEvent(largeId, ACCOUNT_ID_1, ACCOUNT_ID_2, money(150_000)),
+                legacyEvent(orphanId, ACCOUNT_ID_2, ACCOUNT_ID_1, money(10))
+        );
+
+        when(metadataCache.getAll(Set.of(ACCOUNT_ID_1, ACCOUNT_ID_2))).thenReturn(Map.of(ACCOUNT_ID_1, oldAccount()));
+        when(transferRepo.countRecentTransfers(Set.of(ACCOUNT_ID_1), FIXED_TIME.minusMinutes(5)))
+                .thenReturn(List.of(recentTransfers(ACCOUNT_ID_1, 4)));
+
+        Map<UUID, FraudAnalysisResult> results = fraudAnalysisService.analyzeFraud(events);
+
+        assertEquals(List.of(smallId, largeId), List.copyOf(results.keySet()));
+        assertEquals(FraudRiskLevel.MEDIUM, results.get(smallId).getRiskLevel());
+        assertEquals(FraudRiskLevel.HIGH, results.get(largeId).getRiskLevel());
+        verify(metadataCache).getAll(anyCollection());
+        verify(transferRepo).countRecentTransfers(anyCollection(), any());
+        verify(velocityTracker, times(2)).record(ACCOUNT_ID_1, FIXED_TIME.toInstant());
+        verify(velocityTracker).record(ACCOUNT_ID_2, FIXED_TIME.toInstant());
+    }
+
+    @Test
+    void analyzeFraud_recordsVelocityAtTransferTime() {
+        useFraudRules();
+        TransferCompletedEvent event = TransferCompletedEvent.builder()
+                .schemaVersion(TransferCompletedEvent.ENRICHED_SCHEMA_VERSION)
+                .transferId(new UUID(1, 1))
+                .fromAccountId(ACCOUNT_ID_1)
+                .toAccountId(ACCOUNT_ID_2)
+                .amount(money(10))
+                .currency(USD)
+                .createdAt(FIXED_TIME.minusHours(3))
+                .senderCreatedAt(FIXED_TIME.minusDays(30))
+                .build();
+
+        fraudAnalysisService.analyzeFraud(List.of(event));
+
+        verify(velocityTracker).record(ACCOUNT_ID_1, FIXED_TIME.minusHours(3).toInstant());
+    }
+
+    @Test
+    void analyzeFraud_batch_warmTracker_countsFromMemory() {
+        useFraudRules();
+        UUID transferId = new UUID(1, 1);
+        List<TransferCompletedEvent> events = List.of(
+                legacyEvent(transferId, ACCOUNT_ID_1, ACCOUNT_ID_2, money(10))
+        );
+
+        when(metadataCache.getAll(Set.of(ACCOUNT_ID_1))).thenReturn(Map.of(ACCOUNT_ID_1, oldAccount()));
+        when(velocityTracker.isWarm(FIXED_TIME.toInstant())).thenReturn(true);
+        when(velocityTracker.count(ACCOUNT_ID_1, FIXED_TIME.toInstant())).thenReturn(4L);
+
+        Map<UUID, FraudAnalysisResult> results = fraudAnalysisService.analyzeFraud(events);
+
+        assertEquals(FraudRiskLevel.MEDIUM, results.get(transferId).getRiskLevel());
+        verify(transferRepo, never()).countRecentTransfers(anyCollection(), any());
+    }
+
+    @Test
+    void analyzeFraud_enrichedEventFromNewAccount_decidedWithoutAnyLookup() {
+        useFraudRules();
+        UUID transferId = new UUID(1, 1);
+        TransferCompletedEvent event = TransferCompletedEvent.builder()
+                .schemaVersion(TransferCompletedEvent.ENRICHED_SCHEMA_VERSION)
+                .transferId(transferId)
+                .fromAccountId(ACCOUNT_ID_1)
+                .toAccountId(ACCOUNT_ID_2)
+                .amount(money(10))
+                .currency(USD)
+                .senderCreatedAt(FIXED_TIME)
+                .build();
+
+        Map<UUID, FraudAnalysisResult> results = fraudAnalysisService.analyzeFraud(List.of(event));
+
+        assertEquals(FraudRiskLevel.HIGH, results.get(transferId).getRiskLevel());
+        verify(metadataCache, never()).getAll(anyCollection());
+        verify(velocityTracker, never()).isWarm(any());
+        verify(transferRepo, never()).countRecentTransfers(anyCollection(), any());
+    }
+
+    private static TransferCompletedEvent legacyEvent(UUID transferId, UUID fromId, UUID toId, BigDecimal amount) {
+        return TransferCompletedEvent.builder()
+                .transferId(transferId)
+                .fromAccountId(fromId)
+                .toAccountId(toId)
+                .amount(amount)
+                .build();
+    }
+
+    private static AccountMetadata oldAccount() {
+        return new AccountMetadata(ACCOUNT_ID_1, JOHN, USD, FIXED_TIME.minusDays(30));
+    }
+
+    private void useFraudRules() {
+        FraudProperties props = new FraudProperties();
+        props.setScoreThresholdMedium(30);
+        props.setScoreThresholdHigh(60);
+        props.setVelocityTimeMinutes(5);
+        props.setVelocityLimitCount(3);
+        props.setHighAmountThreshold(100_000);
+        props.setMidAmountThreshold(50_000);
+        ReflectionTestUtils.setField(fraudAnalysisService, "fraudProperties", props);
+        List<FraudRule> rules = List.of(new VelocityRule(props), new AmountRule(props), new AccountAgeRule());
+        ReflectionTestUtils.setField(fraudAnalysisService, "fraudRulePipeline",
+                new FraudRulePipeline(rules, props, new SimpleMeterRegistry()));
+    }
+
+    private static TransferRepository.RecentTransferCount recentTransfers(UUID accountId, long count) {
+        return new TransferRepository.RecentTransferCount() {
+            @Override
+            public UUID getAccountId() {
+                return accountId;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.account.AccountRepository;
+import com.example.wallet.transfer.dto.StatementLine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_1;
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_2;
+import static com.example.wallet.utils.TestUtils.FIXED_TIME;
+import static com.example.wallet.utils.TestUtils.money;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StatementServiceTest {
+
+    @Mock
+    private StatementJdbcRepository statementRepo;
+
+    @Mock
+    private AccountRepository accountRepo;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StatementService statementService;
+
+    @BeforeEach
+    void setUp() {
+        statementService = new StatementService(statementRepo, accountRepo, transactionManager);
+    }
+
+    private static StatementLine makeLine(TransferDirection direction, TransferStatus status, double change) {
+        return new StatementLine(UUID.randomUUID(), FIXED_TIME, direction, ACCOUNT_ID_2, money(Math.abs(change)),
+                money(0), status, money(change), null);
+    }
+
+    @Test
+    void statement_addsRunningTotal() {
+        when(accountRepo.existsById(ACCOUNT_ID_1)).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<StatementLine> action = invocation.getArgument(3);
+            action.accept(makeLine(TransferDirection.IN, TransferStatus.COMPLETED, 100));
+            action.accept(makeLine(TransferDirection.OUT, TransferStatus.COMPLETED, -30.5));
+            action.accept(makeLine(TransferDirection.OUT, TransferStatus.CANCELLED, 0));
+            return null;
+        }).when(statementRepo).streamLines(any(), any(), any(), any());
+
+        List<BigDecimal> totals = new ArrayList<>();
+        statementService.statement(ACCOUNT_ID_1, FIXED_TIME, FIXED_TIME.plusDays(1))
+                .forEachLine(line -> totals.add(line.runningTotal()));
+
+        assertEquals(List.of(money(100), money(69.5), money(69.5)), totals);
+    }
+
+    @Test
+    void statement_throwsNotFoundForUnknownAccount() {
+        when(accountRepo.existsById(ACCOUNT_ID_1)).thenReturn(false);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> statementService.statement(ACCOUNT_ID_1, FIXED_TIME, FIXED_TIME.plusDays(1)));
+
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+
+    @Test
+    void statement_rejectsEmptyPeriod() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> statementService.statement(ACCOUNT_ID_1, FIXED_TIME, FIXED_TIME));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verifyNoInteractions(accountRepo, statementRepo);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.account.AccountService;
+import com.example.wallet.account.dto.AccountResponse;
+import com.example.wallet.transfer.dto.TransferResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.wallet.utils.TestUtils.money;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Смешанный поток переводов по id и по именам в обе стороны между одними и теми же счетами.
+ * До единого порядка блокировок такие переводы взаимно блокировались.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferConcurrencyTest {
+
+    private static final int ACCOUNTS = 4;
+
+    private static final int TRANSFERS = 400;
+
+    private static final int THREADS = 8;
+
+    @MockBean
+    private KafkaTemplate<?, ?> kafkaTemplate;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void mixedByIdAndByNameTransfers_noDeadlocks() throws Exception {
+        String prefix = UUID.randomUUID().toString().substring(0, 8);
+        List<AccountResponse> accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            AccountResponse account = accountService.create(prefix + "-" + i, "USD");
+            accountService.deposit(account.getId(), money(100_000));
+            accounts.add(account);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<TransferResponse>> results = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < TRANSFERS; i++) {
+            int fromIndex = random.nextInt(ACCOUNTS);
+            int toIndex = (fromIndex + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+            AccountResponse from = accounts.get(fromIndex);
+            AccountResponse to = accounts.get(toIndex);
+            boolean byName = i % 2 == 0;
+            results.add(executor.submit(() -> byName
+                    ? transferService.transferByNames(
+                            from.getOwnerName(), to.getOwnerName(), "USD", money(1), UUID.randomUUID())
+                    : transferService.transfer(from.getId(), to.getId(), money(1), UUID.randomUUID())));
+        }
+        for (Future<TransferResponse> result : results) {
+            assertEquals(TransferStatus.COMPLETED, result.get(1, TimeUnit.MINUTES).getStatus());
+        }
+        executor.shutdown();
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (AccountResponse account : accounts) {
+            total = total.add(accountService.getBalance(account.getId()).getBalance());
+        }
+        BigDecimal fees = money(0.01).multiply(BigDecimal.valueOf(TRANSFERS));
+        assertEquals(money(100_000L * ACCOUNTS).subtract(fees), total);
+        assertTrue(meterRegistry.find("wallet.transfer.lock.failures").counters().isEmpty());
+    }
+
+    /**
+     * С полосами в памяти переводы по именам и отмены ждут в очереди процесса, как и переводы по id,
+     * в том числе когда получатель горячий.
+     */
+    @Nested
+    @TestPropertySource(properties = "wallet.account-locks.striped=true")
+    class StripedLocks {
+
+        @Autowired
+        private TransferService transferService;
+
+        @Autowired
+        private AccountService accountService;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @Test
+        void byNameTransfersAndCancels_queuedWithoutDeadlocks() throws Exception {
+            String prefix = UUID.randomUUID().toString().substring(0, 8);
+            List<AccountResponse> accounts = new ArrayList<>();
+            for (int i = 0; i < ACCOUNTS; i++) {
+                AccountResponse account = accountService.create(prefix + "-" + i, "USD");
+                accountService.deposit(account.getId(), money(100_000));
+                accounts.add(account);
+            }
+            accountService.setBalanceSlots(accounts.get(0).getId(), 4);
+            long stripeWaitsBefore = stripeWaits();
+
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            List<Future<TransferResponse>> results = new ArrayList<>();
+            Random random = new Random(42);
+            for (int i = 0; i < TRANSFERS; i++) {
+                int fromIndex = random.nextInt(ACCOUNTS);
+                int toIndex = (fromIndex + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                AccountResponse from = accounts.get(fromIndex);
+                AccountResponse to = accounts.get(toIndex);
+                boolean cancel = i % 4 == 0;
+                results.add(executor.submit(() -> {
+                    TransferResponse transfer = transferService.transferByNames(
+                            from.getOwnerName(), to.getOwnerName(), "USD", money(1), UUID.randomUUID());
+                    return cancel ? transferService.cancel(transfer.getId()) : transfer;
+                }));
+            }
+            int completed = 0;
+            for (Future<TransferResponse> result : results) {
+                if (result.get(1, TimeUnit.MINUTES).getStatus() == TransferStatus.COMPLETED) {
+                    completed++;
+                }
+            }
+            executor.shutdown();
+
+            BigDecimal total = BigDecimal.ZERO;
+            for (AccountResponse account : accounts) {
+                total = total.add(accountService.getBalance(account.getId()).getBalance());
+            }
+            BigDecimal fees = money(0.01).multiply(BigDecimal.valueOf(completed));
+            assertEquals(TRANSFERS - TRANSFERS / 4, completed);
+            assertEquals(money(100_000L * ACCOUNTS).subtract(fees), total);
+            assertTrue(meterRegistry.find("wallet.transfer.lock.failures").counters().isEmpty());
+            assertTrue(stripeWaits() - stripeWaitsBefore >= TRANSFERS + TRANSFERS / 4);
+        }
+
+        private long stripeWaits() {
+            return meterRegistry.get("wallet.account.stripe.wait").tag("outcome", "acquired").timer().count();
+        }
+    }
+}
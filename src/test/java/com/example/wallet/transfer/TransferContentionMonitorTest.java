@@ -0,0 +1,143 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.configuration.TransferProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static com.example.wallet.utils.TestUtils.FIXED_TIME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransferContentionMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TransferProperties properties;
+
+    private MutableClock clock;
+
+    private TransferContentionMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TransferProperties();
+        properties.setStrategy(TransferStrategy.ADAPTIVE);
+        properties.setAdaptiveConflictRate(0.2);
+        properties.setAdaptiveMinSamples(10);
+        properties.setAdaptiveCooldownMs(60_000);
+        clock = new MutableClock(FIXED_TIME.toInstant());
+        monitor = new TransferContentionMonitor(properties, clock, meterRegistry);
+    }
+
+    @Test
+    void currentStrategy_fixedStrategy_returnedAsIs() {
+        properties.setStrategy(TransferStrategy.PESSIMISTIC);
+        assertEquals(TransferStrategy.PESSIMISTIC, monitor.currentStrategy());
+
+        properties.setStrategy(TransferStrategy.OPTIMISTIC);
+        assertEquals(TransferStrategy.OPTIMISTIC, monitor.currentStrategy());
+    }
+
+    @Test
+    void strategyGauge_reportsStrategyInUse() {
+        properties.setStrategy(TransferStrategy.CONDITIONAL_UPDATE);
+
+        assertEquals(1, strategyGauge(TransferStrategy.CONDITIONAL_UPDATE));
+        assertEquals(0, strategyGauge(TransferStrategy.PESSIMISTIC));
+        assertEquals(0, strategyGauge(TransferStrategy.OPTIMISTIC));
+    }
+
+    @Test
+    void evaluate_highConflictRate_switchesToPessimisticForCooldown() {
+        simulate(10, 3);
+
+        monitor.evaluate();
+
+        assertEquals(TransferStrategy.PESSIMISTIC, monitor.currentStrategy());
+        assertEquals(1, strategyGauge(TransferStrategy.PESSIMISTIC));
+        assertEquals(3, meterRegistry.get("wallet.transfer.optimistic.conflicts").counter().count());
+
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(TransferStrategy.OPTIMISTIC, monitor.currentStrategy());
+    }
+
+    @Test
+    void evaluate_lowConflictRate_staysOptimistic() {
+        simulate(10, 2);
+
+        monitor.evaluate();
+
+        assertEquals(TransferStrategy.OPTIMISTIC, monitor.currentStrategy());
+    }
+
+    @Test
+    void evaluate_tooFewSamples_staysOptimistic() {
+        simulate(5, 5);
+
+        monitor.evaluate();
+
+        assertEquals(TransferStrategy.OPTIMISTIC, monitor.currentStrategy());
+    }
+
+    @Test
+    void onError_businessErrors_notCountedAsConflicts() {
+        simulate(10, 0);
+        for (int i = 0; i < 10; i++) {
+            monitor.onError(null, null, new ResponseStatusException(HttpStatus.BAD_REQUEST));
+        }
+
+        monitor.evaluate();
+
+        assertEquals(TransferStrategy.OPTIMISTIC, monitor.currentStrategy());
+    }
+
+    private double strategyGauge(TransferStrategy strategy) {
+        return meterRegistry.get("wallet.transfer.strategy").tag("strategy", strategy.name()).gauge().value();
+    }
+
+    private void simulate(int transfers, int conflicts) {
+        for (int i = 0; i < transfers; i++) {
+            monitor.open(null, null);
+        }
+        for (int i = 0; i < conflicts; i++) {
+            monitor.onError(null, null, new ObjectOptimisticLockingFailureException(Object.class, "id"));
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.account.AccountMetadata;
+import com.example.wallet.account.AccountMetadataCache;
+import com.example.wallet.configuration.TransferProperties;
+import com.example.wallet.transfer.dto.TransferHistoryFilter;
+import com.example.wallet.transfer.dto.TransferPage;
+import com.example.wallet.transfer.dto.TransferResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_1;
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_2;
+import static com.example.wallet.utils.TestUtils.FIXED_TIME;
+import static com.example.wallet.utils.TestUtils.money;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransferHistoryServiceTest {
+
+    private static final TransferHistoryFilter ALL =
+            new TransferHistoryFilter(TransferDirection.ALL, null, null, null, null, null);
+
+    @Mock
+    private TransferJdbcRepository transferJdbcRepo;
+
+    @Mock
+    private AccountMetadataCache metadataCache;
+
+    @InjectMocks
+    private TransferHistoryService historyService;
+
+    @BeforeEach
+    void setUp() {
+        TransferProperties properties = new TransferProperties();
+        properties.setHistoryDefaultPageSize(2);
+        properties.setHistoryMaxPageSize(3);
+        ReflectionTestUtils.setField(historyService, "properties", properties);
+    }
+
+    private void accountExists() {
+        when(metadataCache.getAll(List.of(ACCOUNT_ID_1)))
+                .thenReturn(Map.of(ACCOUNT_ID_1, new AccountMetadata(ACCOUNT_ID_1, "John", "USD", FIXED_TIME)));
+    }
+
+    private static TransferResponse makeTransfer(OffsetDateTime createdAt) {
+        return new TransferResponse(UUID.randomUUID(), ACCOUNT_ID_1, ACCOUNT_ID_2, money(10),
+                TransferStatus.COMPLETED, createdAt, money(0));
+    }
+
+    @Test
+    void history_returnsCursorOfLastItemWhenMoreRemain() {
+        accountExists();
+        TransferResponse newest = makeTransfer(FIXED_TIME.plusSeconds(2));
+        TransferResponse middle = makeTransfer(FIXED_TIME.plusSeconds(1));
+        when(transferJdbcRepo.findHistory(ACCOUNT_ID_1, ALL, null, null, 3))
+                .thenReturn(List.of(newest, middle, makeTransfer(FIXED_TIME)));
+
+        TransferPage page = historyService.history(ACCOUNT_ID_1, ALL, null, null);
+
+        assertEquals(List.of(newest, middle), page.getItems());
+        TransferHistoryService.Cursor cursor = TransferHistoryService.Cursor.decode(page.getNextCursor());
+        assertEquals(middle.getId(), cursor.id());
+        assertEquals(middle.getCreatedAt().toInstant(), cursor.createdAt().toInstant());
+    }
+
+    @Test
+    void history_passesCursorToRepositoryAndEndsOnShortPage() {
+        accountExists();
+        UUID afterId = UUID.randomUUID();
+        String cursor = new TransferHistoryService.Cursor(FIXED_TIME, afterId).encode();
+        when(transferJdbcRepo.findHistory(ACCOUNT_ID_1, ALL, FIXED_TIME, afterId, 4))
+                .thenReturn(List.of(makeTransfer(FIXED_TIME.minusSeconds(1))));
+
+        TransferPage page = historyService.history(ACCOUNT_ID_1, ALL, cursor, 100);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void history_throwsNotFoundForUnknownAccount() {
+        when(metadataCache.getAll(List.of(ACCOUNT_ID_1))).thenReturn(Map.of());
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> historyService.history(ACCOUNT_ID_1, ALL, null, null));
+
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+        verifyNoInteractions(transferJdbcRepo);
+    }
+
+    @Test
+    void history_rejectsMalformedCursor() {
+        accountExists();
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> historyService.history(ACCOUNT_ID_1, ALL, "bm9wZQ", null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+}
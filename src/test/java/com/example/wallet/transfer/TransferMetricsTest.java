@@ -0,0 +1,63 @@
+package com.example.wallet.transfer;
+
+import com.example.wallet.account.AccountBalanceService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_1;
+import static com.example.wallet.utils.TestUtils.makeAccount;
+import static com.example.wallet.utils.TestUtils.money;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransferMetricsTest {
+
+    @Test
+    void outcome_classifiesTransferRejections() {
+        assertEquals("insufficient-funds", TransferMetrics.outcome(
+                new ResponseStatusException(HttpStatus.BAD_REQUEST, AccountBalanceService.INSUFFICIENT_FUNDS)));
+        assertEquals("limit-exceeded", TransferMetrics.outcome(
+                new ResponseStatusException(HttpStatus.BAD_REQUEST, "Daily transfer limit exceeded: 500100.00 / 500000.00")));
+        assertEquals("currency-mismatch", TransferMetrics.outcome(
+                new ResponseStatusException(HttpStatus.BAD_REQUEST, TransferService.CURRENCY_MISMATCH)));
+        assertEquals("not-found", TransferMetrics.outcome(
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "Account not found")));
+        assertEquals("busy", TransferMetrics.outcome(
+                new ResponseStatusException(HttpStatus.CONFLICT, "Accounts are busy, please try again later")));
+        assertEquals("rejected", TransferMetrics.outcome(
+                new ResponseStatusException(HttpStatus.BAD_REQUEST, "amount must be > 0")));
+        assertEquals("error", TransferMetrics.outcome(new IllegalStateException()));
+    }
+
+    @Test
+    void outcome_classifiesInsufficientFundsFromBalanceService() {
+        AccountBalanceService balances = new AccountBalanceService(null, null, null);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> balances.debit(makeAccount(ACCOUNT_ID_1, "John", "USD", 10), money(100)));
+
+        assertEquals("insufficient-funds", TransferMetrics.outcome(e));
+    }
+
+    @Test
+    void timeTransfer_reusesTimerPerOperationAndOutcome() throws Throwable {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TransferMetrics metrics = new TransferMetrics(meterRegistry);
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        Signature signature = mock(Signature.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getName()).thenReturn("transfer");
+
+        metrics.timeTransfer(joinPoint);
+        metrics.timeTransfer(joinPoint);
+
+        assertEquals(2, meterRegistry.get("wallet.transfer.requests")
+                .tag("operation", "transfer").tag("outcome", "success").timer().count());
+    }
+}
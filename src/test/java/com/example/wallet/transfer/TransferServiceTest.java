@@ -1,27 +1,43 @@
 package com.example.wallet.transfer;
 
 import com.example.wallet.account.Account;
+import com.example.wallet.account.AccountBalanceService;
+import com.example.wallet.account.AccountBalanceSlot;
+import com.example.wallet.account.AccountBalanceSlotRepository;
 import com.example.wallet.account.AccountLockingService;
+import com.example.wallet.account.AccountReadCache;
+import com.example.wallet.account.AccountStatisticsService;
 import com.example.wallet.common.MoneyConstants;
+import com.example.wallet.event.TransferCompletedEvent;
+import com.example.wallet.transfer.dto.BatchTransferItemResponse;
+import com.example.wallet.transfer.dto.BatchTransferResponse;
 import com.example.wallet.transfer.dto.CountResponse;
+import com.example.wallet.transfer.dto.TransferRequest;
 import com.example.wallet.transfer.dto.TransferResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Clock;
 import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -34,9 +50,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -55,23 +74,54 @@ class TransferServiceTest {
 
     private static final String USD = "USD";
 
-    private static final BigDecimal ZERO_AMOUNT = money(0);
-
     @Spy
     private Clock clock = Clock.fixed(FIXED_TIME.toInstant(), ZoneOffset.UTC);
 
     @Captor
     private ArgumentCaptor<Transfer> transferCaptor;
 
+    @Captor
+    private ArgumentCaptor<Iterable<Transfer>> transferListCaptor;
+
+    @Captor
+    private ArgumentCaptor<TransferCompletedEvent> eventCaptor;
+
     @Mock
     private TransferRepository transferRepo;
 
+    @Mock
+    private DailyTransferTotalRepository dailyTotalRepo;
+
+    @Mock
+    private TransferJdbcRepository transferJdbcRepo;
+
     @Mock
     private AccountLockingService accountLockingService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AccountStatisticsService statisticsService;
+
+    @Mock
+    private AccountBalanceSlotRepository slotRepo;
+
+    @Mock
+    private AccountReadCache readCache;
+
     @InjectMocks
     private TransferService transferService;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        AccountBalanceService balances = new AccountBalanceService(slotRepo, statisticsService, readCache);
+        ReflectionTestUtils.setField(transferService, "balances", balances);
+        ReflectionTestUtils.setField(transferService, "transferMetrics", new TransferMetrics(meterRegistry));
+    }
+
     private Transfer makeTransfer(long amount, double fee) {
         return Transfer.builder()
                 .fromAccountId(ACCOUNT_ID_1)
@@ -101,6 +151,22 @@ class TransferServiceTest {
         return createAccountPair(fromBalance, toBalance, USD, USD);
     }
 
+    private DailyTransferTotal makeDailyTotal(BigDecimal total) {
+        DailyTransferTotal daily = new DailyTransferTotal(ACCOUNT_ID_1, FIXED_TIME.toLocalDate());
+        daily.setTotal(total);
+        daily.markPersisted();
+        return daily;
+    }
+
+    private TransferRequest makeRequest(UUID key, UUID fromId, UUID toId, double amount) {
+        TransferRequest req = new TransferRequest();
+        req.setIdempotencyKey(key);
+        req.setFromAccountId(fromId);
+        req.setToAccountId(toId);
+        req.setAmount(money(amount));
+        return req;
+    }
+
     @Test
     void transfer_success() {
         AccountLockingService.AccountPair accounts = createAccountPair(300, 0);
@@ -111,8 +177,8 @@ class TransferServiceTest {
         Transfer preparedTransfer = makeTransfer(100, 1);
 
         when(transferRepo.findByIdempotencyKey(any())).thenReturn(Optional.empty());
-        when(accountLockingService.lockTwoAccounts(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
-        when(transferRepo.sumDailyTransfers(any(), any())).thenReturn(ZERO_AMOUNT);
+        when(accountLockingService.lockForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
+        when(dailyTotalRepo.findById(any())).thenReturn(Optional.empty());
         when(transferRepo.save(transferCaptor.capture())).thenReturn(preparedTransfer);
 
         TransferResponse response = transferService.transfer(
@@ -136,6 +202,189 @@ class TransferServiceTest {
         assertEquals(IDEMPOTENCY_KEY, captured.getIdempotencyKey());
         assertNull(captured.getId());
         assertNull(captured.getCreatedAt());
+
+        InOrder inOrder = inOrder(accountLockingService, transferRepo);
+        inOrder.verify(accountLockingService).queueForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2);
+        inOrder.verify(transferRepo).findByIdempotencyKey(IDEMPOTENCY_KEY);
+        inOrder.verify(accountLockingService).lockForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2);
+
+        verify(statisticsService).recordOutgoing(ACCOUNT_ID_1, transferAmount, expectedFee);
+        verify(statisticsService).recordIncoming(ACCOUNT_ID_2, transferAmount);
+
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        TransferCompletedEvent event = eventCaptor.getValue();
+        assertTrue(event.isEnriched());
+        assertEquals(DEFAULT_TRANSFER_ID, event.getTransferId());
+        assertEquals(USD, event.getCurrency());
+        assertEquals(expectedFee, event.getFee());
+        assertEquals(FIXED_TIME, event.getCreatedAt());
+        assertEquals(accounts.from().getCreatedAt(), event.getSenderCreatedAt());
+    }
+
+    @Test
+    void transferOptimistic_readsAccountsWithoutLocks() {
+        AccountLockingService.AccountPair accounts = createAccountPair(300, 0);
+
+        when(transferRepo.findByIdempotencyKey(any())).thenReturn(Optional.empty());
+        when(accountLockingService.readForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
+        when(dailyTotalRepo.findById(any())).thenReturn(Optional.empty());
+        when(transferRepo.save(any())).thenReturn(makeTransfer(100, 1));
+
+        transferService.transferOptimistic(ACCOUNT_ID_1, ACCOUNT_ID_2, money(100), IDEMPOTENCY_KEY);
+
+        assertEquals(money(199), accounts.from().getBalance());
+        assertEquals(money(100), accounts.to().getBalance());
+        verify(accountLockingService, never()).lockForTransfer(any(), any());
+        verify(accountLockingService, never()).queueForTransfer(any(), any());
+    }
+
+    @Test
+    void transferConditional_success() {
+        when(transferRepo.findByIdempotencyKey(IDEMPOTENCY_KEY)).thenReturn(Optional.empty());
+        when(transferJdbcRepo.findAccounts(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(Map.of(
+                ACCOUNT_ID_1, new TransferJdbcRepository.AccountInfo(ACCOUNT_ID_1, USD, money(300), false, FIXED_TIME),
+                ACCOUNT_ID_2, new TransferJdbcRepository.AccountInfo(ACCOUNT_ID_2, USD, money(0), false, FIXED_TIME)
+        ));
+        when(transferJdbcRepo.debit(ACCOUNT_ID_1, money(101))).thenReturn(true);
+        when(transferJdbcRepo.addToDailyTotal(ACCOUNT_ID_1, FIXED_TIME.toLocalDate(), money(100),
+                MoneyConstants.DAILY_TRANSFER_LIMIT)).thenReturn(true);
+
+        TransferResponse response = transferService.transferConditional(
+                ACCOUNT_ID_1, ACCOUNT_ID_2, money(100), IDEMPOTENCY_KEY);
+
+        assertEquals(money(100), response.getAmount());
+        assertEquals(money(1), response.getFee());
+        assertEquals(TransferStatus.COMPLETED, response.getStatus());
+
+        InOrder inOrder = inOrder(transferJdbcRepo);
+        inOrder.verify(transferJdbcRepo).debit(ACCOUNT_ID_1, money(101));
+        inOrder.verify(transferJdbcRepo).credit(ACCOUNT_ID_2, money(100));
+        verify(transferJdbcRepo).recordOutgoing(ACCOUNT_ID_1, money(101));
+        verify(transferJdbcRepo).recordIncoming(ACCOUNT_ID_2, money(100));
+        verify(transferJdbcRepo).insertTransfer(transferCaptor.capture());
+        assertEquals(IDEMPOTENCY_KEY, transferCaptor.getValue().getIdempotencyKey());
+        verify(accountLockingService, never()).lockForTransfer(any(), any());
+        verify(eventPublisher).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void transferConditional_insufficientFunds() {
+        when(transferRepo.findByIdempotencyKey(IDEMPOTENCY_KEY)).thenReturn(Optional.empty());
+        when(transferJdbcRepo.findAccounts(ACCOUNT_ID_2, ACCOUNT_ID_1)).thenReturn(Map.of(
+                ACCOUNT_ID_1, new TransferJdbcRepository.AccountInfo(ACCOUNT_ID_1, USD, money(300), false, FIXED_TIME),
+                ACCOUNT_ID_2, new TransferJdbcRepository.AccountInfo(ACCOUNT_ID_2, USD, money(50), false, FIXED_TIME)
+        ));
+        when(transferJdbcRepo.debit(ACCOUNT_ID_2, money(101))).thenReturn(false);
+        BigDecimal amount = money(100);
+
+        ResponseStatusException ex = assertThrows(
+                ResponseStatusException.class,
+                () -> transferService.transferConditional(ACCOUNT_ID_2, ACCOUNT_ID_1, amount, IDEMPOTENCY_KEY)
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        assertEquals("Insufficient funds", ex.getReason());
+        verify(transferJdbcRepo).credit(ACCOUNT_ID_1, money(100));
+        verify(transferJdbcRepo, never()).insertTransfer(any());
+    }
+
+    @Test
+    void transferConditional_dailyLimitExceeded() {
+        when(transferRepo.findByIdempotencyKey(IDEMPOTENCY_KEY)).thenReturn(Optional.empty());
+        when(transferJdbcRepo.findAccounts(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(Map.of(
+                ACCOUNT_ID_1, new TransferJdbcRepository.AccountInfo(ACCOUNT_ID_1, USD, money(300), false, FIXED_TIME),
+                ACCOUNT_ID_2, new TransferJdbcRepository.AccountInfo(ACCOUNT_ID_2, USD, money(0), false, FIXED_TIME)
+        ));
+        when(transferJdbcRepo.debit(ACCOUNT_ID_1, money(101))).thenReturn(true);
+        when(transferJdbcRepo.addToDailyTotal(any(), any(), any(), any())).thenReturn(false);
+        when(transferJdbcRepo.findDailyTotal(ACCOUNT_ID_1, FIXED_TIME.toLocalDate()))
+                .thenReturn(Optional.of(money(499950)));
+        BigDecimal amount = money(100);
+
+        ResponseStatusException ex = assertThrows(
+                ResponseStatusException.class,
+                () -> transferService.transferConditional(ACCOUNT_ID_1, ACCOUNT_ID_2, amount, IDEMPOTENCY_KEY)
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        assertEquals("Daily transfer limit exceeded: 500050.00 / 500000.00", ex.getReason());
+        verify(transferJdbcRepo, never()).insertDailyTotal(any(), any(), any());
+    }
+
+    @Test
+    void transferConditional_hotAccount_fallsBackToLocking() {
+        AccountLockingService.AccountPair accounts = createAccountPair(300, 0);
+
+        when(transferRepo.findByIdempotencyKey(IDEMPOTENCY_KEY)).thenReturn(Optional.empty());
+        when(transferJdbcRepo.findAccounts(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(Map.of(
+                ACCOUNT_ID_1, new TransferJdbcRepository.AccountInfo(ACCOUNT_ID_1, USD, money(300), false, FIXED_TIME),
+                ACCOUNT_ID_2, new TransferJdbcRepository.AccountInfo(ACCOUNT_ID_2, USD, money(0), true, FIXED_TIME)
+        ));
+        when(accountLockingService.lockForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
+        when(dailyTotalRepo.findById(any())).thenReturn(Optional.empty());
+        when(transferRepo.save(any())).thenReturn(makeTransfer(100, 1));
+
+        transferService.transferConditional(ACCOUNT_ID_1, ACCOUNT_ID_2, money(100), IDEMPOTENCY_KEY);
+
+        assertEquals(money(199), accounts.from().getBalance());
+        verify(transferJdbcRepo, never()).debit(any(), any());
+    }
+
+    @Test
+    void transfer_hotRecipient_creditsSlot() {
+        AccountLockingService.AccountPair accounts = createAccountPair(300, 0);
+        accounts.to().setBalanceSlots(1);
+        AccountBalanceSlot slot = new AccountBalanceSlot(ACCOUNT_ID_2, 0);
+
+        when(transferRepo.findByIdempotencyKey(any())).thenReturn(Optional.empty());
+        when(accountLockingService.lockForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
+        when(dailyTotalRepo.findById(any())).thenReturn(Optional.empty());
+        when(slotRepo.findByIdForUpdate(slot.getId())).thenReturn(Optional.of(slot));
+        when(transferRepo.save(any())).thenReturn(makeTransfer(100, 1));
+
+        transferService.transfer(ACCOUNT_ID_1, ACCOUNT_ID_2, money(100), IDEMPOTENCY_KEY);
+
+        assertEquals(money(199), accounts.from().getBalance());
+        assertEquals(money(0), accounts.to().getBalance());
+        assertEquals(money(100), slot.getBalance());
+        assertEquals(1L, slot.getIncomingCount());
+        assertEquals(money(100), slot.getTotalReceived());
+        verify(statisticsService, never()).recordIncoming(any(), any());
+    }
+
+    @Test
+    void transfer_updatesDailyTotal() {
+        AccountLockingService.AccountPair accounts = createAccountPair(1000, 0);
+        DailyTransferTotal daily = makeDailyTotal(money(200));
+
+        when(transferRepo.findByIdempotencyKey(any())).thenReturn(Optional.empty());
+        when(accountLockingService.lockForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
+        when(dailyTotalRepo.findById(daily.getId())).thenReturn(Optional.of(daily));
+        when(transferRepo.save(any())).thenReturn(makeTransfer(100, 1));
+
+        transferService.transfer(ACCOUNT_ID_1, ACCOUNT_ID_2, money(100), IDEMPOTENCY_KEY);
+
+        assertEquals(money(300), daily.getTotal());
+        verify(dailyTotalRepo, never()).save(any());
+    }
+
+    @Test
+    void transfer_firstTransferOfDay_createsDailyTotal() {
+        AccountLockingService.AccountPair accounts = createAccountPair(1000, 0);
+        ArgumentCaptor<DailyTransferTotal> dailyCaptor = ArgumentCaptor.forClass(DailyTransferTotal.class);
+
+        when(transferRepo.findByIdempotencyKey(any())).thenReturn(Optional.empty());
+        when(accountLockingService.lockForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
+        when(dailyTotalRepo.findById(any())).thenReturn(Optional.empty());
+        when(transferRepo.save(any())).thenReturn(makeTransfer(100, 1));
+
+        transferService.transfer(ACCOUNT_ID_1, ACCOUNT_ID_2, money(100), IDEMPOTENCY_KEY);
+
+        verify(dailyTotalRepo).save(dailyCaptor.capture());
+        DailyTransferTotal created = dailyCaptor.getValue();
+        assertEquals(ACCOUNT_ID_1, created.getId().getAccountId());
+        assertEquals(FIXED_TIME.toLocalDate(), created.getId().getTransferDate());
+        assertEquals(money(100), created.getTotal());
     }
 
     @ParameterizedTest
@@ -147,7 +396,7 @@ class TransferServiceTest {
         AccountLockingService.AccountPair accounts = createAccountPair(balance, 0);
 
         when(transferRepo.findByIdempotencyKey(any())).thenReturn(Optional.empty());
-        when(accountLockingService.lockTwoAccounts(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
+        when(accountLockingService.lockForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
 
         ResponseStatusException exception = assertThrows(
                 ResponseStatusException.class,
@@ -155,6 +404,7 @@ class TransferServiceTest {
         );
 
         verify(transferRepo, never()).save(any());
+        verify(statisticsService, never()).recordOutgoing(any(), any(), any());
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
         assertThat(exception.getReason()).contains("Insufficient", "funds");
     }
@@ -169,7 +419,7 @@ class TransferServiceTest {
         BigDecimal transferAmount = money(100);
 
         when(transferRepo.findByIdempotencyKey(any())).thenReturn(Optional.empty());
-        when(accountLockingService.lockTwoAccounts(ACCOUNT_ID_1, ACCOUNT_ID_1)).thenReturn(accounts);
+        when(accountLockingService.lockForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_1)).thenReturn(accounts);
 
         ResponseStatusException exception = assertThrows(
                 ResponseStatusException.class,
@@ -191,7 +441,7 @@ class TransferServiceTest {
     void transfer_wrongAmount(BigDecimal amount) {
         when(transferRepo.findByIdempotencyKey(any())).thenReturn(Optional.empty());
         AccountLockingService.AccountPair accounts = createAccountPair(300, 0);
-        when(accountLockingService.lockTwoAccounts(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
+        when(accountLockingService.lockForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
 
         ResponseStatusException exception = assertThrows(
                 ResponseStatusException.class,
@@ -209,7 +459,7 @@ class TransferServiceTest {
         BigDecimal transferAmount = money(100);
 
         when(transferRepo.findByIdempotencyKey(any())).thenReturn(Optional.empty());
-        when(accountLockingService.lockTwoAccounts(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
+        when(accountLockingService.lockForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
 
         ResponseStatusException exception = assertThrows(
                 ResponseStatusException.class,
@@ -232,8 +482,9 @@ class TransferServiceTest {
         BigDecimal expectedTotal = dailyTransferred.add(transferAmount);
 
         when(transferRepo.findByIdempotencyKey(any())).thenReturn(Optional.empty());
-        when(accountLockingService.lockTwoAccounts(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
-        when(transferRepo.sumDailyTransfers(eq(ACCOUNT_ID_1), any())).thenReturn(dailyTransferred);
+        when(accountLockingService.lockForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
+        when(dailyTotalRepo.findById(new DailyTransferTotal.Key(ACCOUNT_ID_1, FIXED_TIME.toLocalDate())))
+                .thenReturn(Optional.of(makeDailyTotal(dailyTransferred)));
 
         ResponseStatusException exception = assertThrows(
                 ResponseStatusException.class,
@@ -271,8 +522,8 @@ class TransferServiceTest {
         BigDecimal expectedToBalance = transferAmount.setScale(2, RoundingMode.HALF_UP);
 
         when(transferRepo.findByIdempotencyKey(any())).thenReturn(Optional.empty());
-        when(accountLockingService.lockTwoAccounts(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
-        when(transferRepo.sumDailyTransfers(any(), any())).thenReturn(ZERO_AMOUNT);
+        when(accountLockingService.lockForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
+        when(dailyTotalRepo.findById(any())).thenReturn(Optional.empty());
         when(transferRepo.save(any())).thenAnswer(invocation -> {
             Transfer transfer = invocation.getArgument(0);
             transfer.setId(DEFAULT_TRANSFER_ID);
@@ -298,8 +549,9 @@ class TransferServiceTest {
                 .ignoringFields("idempotencyKey")
                 .isEqualTo(transfer);
 
-        verify(accountLockingService, never()).lockTwoAccounts(any(), any());
+        verify(accountLockingService, never()).lockForTransfer(any(), any());
         verify(transferRepo, never()).save(any());
+        assertEquals(1.0, meterRegistry.get("wallet.transfer.idempotency.hits").counter().count());
     }
 
     @Test
@@ -313,8 +565,10 @@ class TransferServiceTest {
 
         when(transferRepo.findByIdempotencyKey(any())).thenReturn(Optional.empty());
         when(transferRepo.save(transferCaptor.capture())).thenReturn(preparedTransfer);
-        when(transferRepo.sumDailyTransfers(any(), any())).thenReturn(ZERO_AMOUNT);
-        when(accountLockingService.lockTwoAccountsByName(JOHN, JANE, USD)).thenReturn(accounts);
+        when(dailyTotalRepo.findById(any())).thenReturn(Optional.empty());
+        when(accountLockingService.resolveId(JOHN, USD)).thenReturn(ACCOUNT_ID_1);
+        when(accountLockingService.resolveId(JANE, USD)).thenReturn(ACCOUNT_ID_2);
+        when(accountLockingService.lockForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
 
         TransferResponse response = transferService.transferByNames(JOHN, JANE, USD, transferAmount, IDEMPOTENCY_KEY);
 
@@ -336,6 +590,11 @@ class TransferServiceTest {
         assertEquals(IDEMPOTENCY_KEY, captured.getIdempotencyKey());
         assertNull(captured.getId());
         assertNull(captured.getCreatedAt());
+
+        InOrder inOrder = inOrder(accountLockingService, transferRepo);
+        inOrder.verify(accountLockingService).queueForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2);
+        inOrder.verify(transferRepo).findByIdempotencyKey(IDEMPOTENCY_KEY);
+        inOrder.verify(accountLockingService).lockForTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2);
     }
 
     @Test
@@ -379,9 +638,17 @@ class TransferServiceTest {
         when(transferRepo.findByIdForUpdate(DEFAULT_TRANSFER_ID)).thenReturn(Optional.of(transfer));
         when(accountLockingService.lockTwoAccounts(ACCOUNT_ID_1, ACCOUNT_ID_2)).thenReturn(accounts);
 
+        DailyTransferTotal daily = makeDailyTotal(money(250));
+        when(dailyTotalRepo.findById(daily.getId())).thenReturn(Optional.of(daily));
+
         TransferResponse response = transferService.cancel(DEFAULT_TRANSFER_ID);
 
         assertEquals(TransferStatus.CANCELLED, response.getStatus());
+        assertEquals(money(150), daily.getTotal());
+        verify(statisticsService).revertTransfer(ACCOUNT_ID_1, ACCOUNT_ID_2, money(100), money(1));
+        InOrder inOrder = inOrder(accountLockingService);
+        inOrder.verify(accountLockingService).queueAccounts(List.of(ACCOUNT_ID_1, ACCOUNT_ID_2));
+        inOrder.verify(accountLockingService).lockTwoAccounts(ACCOUNT_ID_1, ACCOUNT_ID_2);
         assertEquals(expectedFromBalance, accounts.from().getBalance());
         assertEquals(expectedToBalance, accounts.to().getBalance());
     }
@@ -455,4 +722,83 @@ class TransferServiceTest {
         CountResponse transfersCount = transferService.count();
         assertEquals(5L, transfersCount.getCount());
     }
-}
\ No newline at end of file
+
+    @Test
+    void transferBatch_success() {
+        Account john = makeAccount(ACCOUNT_ID_1, JOHN, USD, 300);
+        Account jane = makeAccount(ACCOUNT_ID_2, JANE, USD, 0);
+        List<TransferRequest> requests = List.of(
+                makeRequest(new UUID(1, 1), ACCOUNT_ID_1, ACCOUNT_ID_2, 100),
+                makeRequest(new UUID(2, 2), ACCOUNT_ID_1, ACCOUNT_ID_2, 50)
+        );
+
+        when(transferRepo.findAllByIdempotencyKeyIn(anyCollection())).thenReturn(List.of());
+        when(accountLockingService.lockAccounts(anyCollection()))
+                .thenReturn(Map.of(ACCOUNT_ID_1, john, ACCOUNT_ID_2, jane));
+        when(dailyTotalRepo.findById(any())).thenReturn(Optional.empty());
+
+        BatchTransferResponse response = transferService.transferBatch(requests);
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(0, response.getFailed());
+        assertThat(response.getResults())
+                .extracting(BatchTransferItemResponse::getStatus)
+                .containsExactly(HttpStatus.CREATED.value(), HttpStatus.CREATED.value());
+        assertEquals(money(148.50), john.getBalance());
+        assertEquals(money(150), jane.getBalance());
+
+        verify(accountLockingService, times(1)).lockAccounts(anyCollection());
+        verify(accountLockingService, never()).lockTwoAccounts(any(), any());
+        verify(dailyTotalRepo, times(2)).findById(any());
+        verify(transferRepo).saveAll(transferListCaptor.capture());
+        assertThat(transferListCaptor.getValue())
+                .extracting(Transfer::getAmount)
+                .containsExactly(money(100), money(50));
+        verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void transferBatch_partialFailure() {
+        UUID missingAccount = new UUID(3, 3);
+        Account john = makeAccount(ACCOUNT_ID_1, JOHN, USD, 100);
+        Account jane = makeAccount(ACCOUNT_ID_2, JANE, USD, 0);
+        List<TransferRequest> requests = List.of(
+                makeRequest(new UUID(1, 1), ACCOUNT_ID_1, ACCOUNT_ID_2, 60),
+                makeRequest(new UUID(2, 2), ACCOUNT_ID_1, ACCOUNT_ID_2, 60),
+                makeRequest(new UUID(3, 3), ACCOUNT_ID_1, missingAccount, 10)
+        );
+
+        when(transferRepo.findAllByIdempotencyKeyIn(anyCollection())).thenReturn(List.of());
+        when(accountLockingService.lockAccounts(anyCollection()))
+                .thenReturn(Map.of(ACCOUNT_ID_1, john, ACCOUNT_ID_2, jane));
+        when(dailyTotalRepo.findById(any())).thenReturn(Optional.empty());
+
+        BatchTransferResponse response = transferService.transferBatch(requests);
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        List<BatchTransferItemResponse> results = response.getResults();
+        assertEquals(HttpStatus.CREATED.value(), results.get(0).getStatus());
+        assertEquals(HttpStatus.BAD_REQUEST.value(), results.get(1).getStatus());
+        assertEquals("Insufficient funds", results.get(1).getError());
+        assertEquals(HttpStatus.NOT_FOUND.value(), results.get(2).getStatus());
+        assertEquals(money(39.40), john.getBalance());
+        assertEquals(money(60), jane.getBalance());
+    }
+
+    @Test
+    void transferBatch_existingKey_returnsExisting() {
+        Transfer transfer = makeTransfer(100, 1);
+        List<TransferRequest> requests = List.of(makeRequest(IDEMPOTENCY_KEY, ACCOUNT_ID_1, ACCOUNT_ID_2, 100));
+
+        when(transferRepo.findAllByIdempotencyKeyIn(anyCollection())).thenReturn(List.of(transfer));
+        when(accountLockingService.lockAccounts(anyCollection())).thenReturn(Map.of());
+
+        BatchTransferResponse response = transferService.transferBatch(requests);
+
+        BatchTransferItemResponse item = response.getResults().get(0);
+        assertEquals(HttpStatus.OK.value(), item.getStatus());
+        assertEquals(DEFAULT_TRANSFER_ID, item.getTransfer().getId());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+}
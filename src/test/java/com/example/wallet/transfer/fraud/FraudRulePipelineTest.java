@@ -0,0 +1,133 @@
+package com.example.wallet.transfer.fraud;
+
+import com.example.wallet.configuration.FraudProperties;
+import com.example.wallet.event.TransferCompletedEvent;
+import com.example.wallet.transfer.dto.FraudRiskLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_1;
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_2;
+import static com.example.wallet.utils.TestUtils.FIXED_TIME;
+import static com.example.wallet.utils.TestUtils.money;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FraudRulePipelineTest {
+
+    private static final TransferCompletedEvent EVENT =
+            TransferCompletedEvent.builder()
+                    .transferId(ACCOUNT_ID_2)
+                    .fromAccountId(ACCOUNT_ID_1)
+                    .toAccountId(ACCOUNT_ID_2)
+                    .amount(money(10))
+                    .build();
+
+    private static final FraudCheckContext CONTEXT =
+            new FraudCheckContext(null, FIXED_TIME);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<String> checked = new ArrayList<>();
+
+    private FraudProperties props;
+
+    @BeforeEach
+    void setUp() {
+        props = new FraudProperties();
+        props.setScoreThresholdMedium(30);
+        props.setScoreThresholdHigh(60);
+    }
+
+    @Test
+    void evaluate_cheapRulesReachHigh_stopsBeforeRemainingRules() {
+        FraudRulePipeline pipeline = new FraudRulePipeline(List.of(
+                new StubRule("small", FraudRuleCost.CHEAP, 10, 10),
+                new StubRule("velocity", FraudRuleCost.EXPENSIVE, 40, 40),
+                new StubRule("age", FraudRuleCost.CHEAP, 60, 60)
+        ), props, meterRegistry);
+
+        FraudAssessment assessment = pipeline.start();
+        pipeline.evaluate(FraudRuleCost.CHEAP, EVENT, CONTEXT, assessment);
+
+        assertEquals(List.of("age"), checked);
+        assertTrue(pipeline.isDecided(assessment));
+        assertEquals(FraudRiskLevel.HIGH, pipeline.riskLevel(assessment.getScore()));
+        assertEquals(1, meterRegistry.get("wallet.fraud.rule").tag("rule", "StubRule").timer().count());
+    }
+
+    @Test
+    void evaluate_outcomeStillOpen_needsExpensiveRules() {
+        FraudRulePipeline pipeline = new FraudRulePipeline(List.of(
+                new StubRule("amount", FraudRuleCost.CHEAP, 30, 0),
+                new StubRule("velocity", FraudRuleCost.EXPENSIVE, 40, 40)
+        ), props, meterRegistry);
+
+        FraudAssessment assessment = pipeline.start();
+        pipeline.evaluate(FraudRuleCost.CHEAP, EVENT, CONTEXT, assessment);
+
+        assertFalse(pipeline.isDecided(assessment));
+
+        pipeline.evaluate(FraudRuleCost.EXPENSIVE, EVENT, CONTEXT.withRecentTransfers(5), assessment);
+
+        assertEquals(List.of("amount", "velocity"), checked);
+        assertEquals(FraudRiskLevel.MEDIUM, pipeline.riskLevel(assessment.getScore()));
+        assertEquals(List.of("velocity (+40)"), assessment.getReasons());
+        assertEquals(1, meterRegistry.get("wallet.fraud.rule.score").tag("score", "0").counter().count());
+        assertEquals(1, meterRegistry.get("wallet.fraud.rule.score").tag("score", "40").counter().count());
+    }
+
+    @Test
+    void evaluate_scoreBelowMax_countedUnderItsOwnTag() {
+        FraudRulePipeline pipeline = new FraudRulePipeline(List.of(
+                new StubRule("age", FraudRuleCost.CHEAP, 60, 20)
+        ), props, meterRegistry);
+
+        for (int i = 0; i < 2; i++) {
+            pipeline.evaluate(FraudRuleCost.CHEAP, EVENT, CONTEXT, pipeline.start());
+        }
+
+        assertEquals(2, meterRegistry.get("wallet.fraud.rule.score").tag("score", "20").counter().count());
+        assertEquals(0, meterRegistry.get("wallet.fraud.rule.score").tag("score", "60").counter().count());
+    }
+
+    private final class StubRule implements FraudRule {
+
+        private final String name;
+
+        private final FraudRuleCost cost;
+
+        private final int maxScore;
+
+        private final int score;
+
+        private StubRule(String name, FraudRuleCost cost, int maxScore, int score) {
+            this.name = name;
+            this.cost = cost;
+            this.maxScore = maxScore;
+            this.score = score;
+        }
+
+        @Override
+        public Optional<FraudRuleResult> check(TransferCompletedEvent event, FraudCheckContext context) {
+            checked.add(name);
+            return score == 0 ? Optional.empty() : Optional.of(new FraudRuleResult(score, name));
+        }
+
+        @Override
+        public FraudRuleCost cost() {
+            return cost;
+        }
+
+        @Override
+        public int maxScore() {
+            return maxScore;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.wallet.transfer.fraud;
+
+import com.example.wallet.configuration.FraudProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_1;
+import static com.example.wallet.utils.TestUtils.ACCOUNT_ID_2;
+import static com.example.wallet.utils.TestUtils.FIXED_TIME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VelocityTrackerTest {
+
+    private static final Instant START = FIXED_TIME.toInstant();
+
+    @TempDir
+    private Path tempDir;
+
+    private FraudProperties props;
+
+    @BeforeEach
+    void setUp() {
+        props = new FraudProperties();
+        props.setVelocityTimeMinutes(5);
+        props.setVelocityBucketSeconds(10);
+        props.setVelocityMaxAccounts(100);
+        props.setVelocitySnapshotPath(tempDir.resolve("velocity.bin").toString());
+    }
+
+    @Test
+    void count_onlyTransfersInsideWindow() {
+        VelocityTracker tracker = tracker(START);
+
+        tracker.record(ACCOUNT_ID_1, START);
+        tracker.record(ACCOUNT_ID_1, START.plusSeconds(60));
+        tracker.record(ACCOUNT_ID_1, START.plusSeconds(200));
+        tracker.record(ACCOUNT_ID_2, START.plusSeconds(200));
+
+        assertEquals(3, tracker.count(ACCOUNT_ID_1, START.plusSeconds(200)));
+        assertEquals(2, tracker.count(ACCOUNT_ID_1, START.plusSeconds(320)));
+        assertEquals(1, tracker.count(ACCOUNT_ID_1, START.plusSeconds(400)));
+        assertEquals(0, tracker.count(ACCOUNT_ID_1, START.plusSeconds(600)));
+        assertEquals(0, tracker.count(UUID.randomUUID(), START));
+    }
+
+    @Test
+    void record_transferOlderThanWindow_doesNotResetNewerBucket() {
+        VelocityTracker tracker = tracker(START);
+        tracker.record(ACCOUNT_ID_1, START.plusSeconds(400));
+
+        tracker.record(ACCOUNT_ID_1, START.plusSeconds(100));
+
+        assertEquals(1, tracker.count(ACCOUNT_ID_1, START.plusSeconds(400)));
+    }
+
+    @Test
+    void record_overCapacity_evictsLeastRecentlyUsedAccount() {
+        props.setVelocityMaxAccounts(1);
+        VelocityTracker tracker = tracker(START);
+
+        tracker.record(ACCOUNT_ID_1, START);
+        tracker.record(ACCOUNT_ID_2, START);
+
+        assertEquals(0, tracker.count(ACCOUNT_ID_1, START));
+        assertEquals(1, tracker.count(ACCOUNT_ID_2, START));
+    }
+
+    @Test
+    void isWarm_afterObservingWholeWindow() {
+        VelocityTracker tracker = tracker(START);
+
+        assertFalse(tracker.isWarm(START.plusSeconds(299)));
+        assertTrue(tracker.isWarm(START.plusSeconds(300)));
+    }
+
+    @Test
+    void shutdown_restoredTrackerKeepsCountsAndWarmth() {
+        VelocityTracker tracker = tracker(START.plusSeconds(400));
+        tracker.assignPartitions(Set.of(0, 1));
+        tracker.record(ACCOUNT_ID_1, START.plusSeconds(350));
+        tracker.record(ACCOUNT_ID_1, START.plusSeconds(390));
+        tracker.record(ACCOUNT_ID_2, START.plusSeconds(10));
+        setObservedSince(tracker, START);
+        tracker.shutdown();
+
+        VelocityTracker restored = tracker(START.plusSeconds(410));
+        restored.restore();
+        restored.assignPartitions(Set.of(1));
+
+        assertTrue(restored.isWarm(START.plusSeconds(410)));
+        assertEquals(2, restored.count(ACCOUNT_ID_1, START.plusSeconds(410)));
+        assertEquals(0, restored.count(ACCOUNT_ID_2, START.plusSeconds(410)));
+    }
+
+    @Test
+    void snapshot_afterCrash_coldForWindowAfterSnapshot() {
+        VelocityTracker tracker = tracker(START.plusSeconds(400));
+        tracker.record(ACCOUNT_ID_1, START.plusSeconds(390));
+        setObservedSince(tracker, START);
+        tracker.snapshot();
+
+        VelocityTracker restored = tracker(START.plusSeconds(410));
+        restored.restore();
+
+        assertEquals(1, restored.count(ACCOUNT_ID_1, START.plusSeconds(410)));
+        assertFalse(restored.isWarm(START.plusSeconds(699)));
+        assertTrue(restored.isWarm(START.plusSeconds(700)));
+    }
+
+    @Test
+    void assignPartitions_newPartition_coldForWindow() {
+        VelocityTracker tracker = tracker(START);
+        tracker.assignPartitions(Set.of(0));
+        assertTrue(tracker.isWarm(START.plusSeconds(300)));
+
+        setClock(tracker, START.plusSeconds(300));
+        tracker.assignPartitions(Set.of(0));
+        assertTrue(tracker.isWarm(START.plusSeconds(300)));
+
+        tracker.assignPartitions(Set.of(0, 1));
+        assertFalse(tracker.isWarm(START.plusSeconds(599)));
+        assertTrue(tracker.isWarm(START.plusSeconds(600)));
+    }
+
+    @Test
+    void restore_differentBucketSize_startsCold() {
+        VelocityTracker tracker = tracker(START);
+        tracker.record(ACCOUNT_ID_1, START);
+        tracker.snapshot();
+
+        props.setVelocityBucketSeconds(30);
+        VelocityTracker restored = tracker(START.plusSeconds(10));
+        restored.restore();
+
+        assertFalse(restored.isWarm(START.plusSeconds(10)));
+        assertEquals(0, restored.count(ACCOUNT_ID_1, START.plusSeconds(10)));
+    }
+
+    private VelocityTracker tracker(Instant now) {
+        return new VelocityTracker(props, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static void setClock(VelocityTracker tracker, Instant now) {
+        ReflectionTestUtils.setField(tracker, "clock", Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static void setObservedSince(VelocityTracker tracker, Instant observedSince) {
+        ReflectionTestUtils.setField(tracker, "observedSince", observedSince);
+    }
+}